@@ -0,0 +1,133 @@
+import com.meowclouds.teamgame.benchmarks.ScoreWorkload;
+import com.meowclouds.teamgame.benchmarks.Workload;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+
+// Application side of the benchmarks. It lives in the default package next to the
+// application classes and hands each benchmark a ready-made Workload.
+public final class BenchmarkWorkloads {
+    private static final String[] GAMES = {"Chess", "FIFA", "Basketball", "CS:GO", "DOTA 2", "Valorant"};
+    private static final long SEED = 42;
+    private static final String SAMPLE_LINE = "P001,Participant_1,user1@university.edu,Chess,2,Strategist,95,Leader";
+
+    private static final List<TeamBuilder> builders = new ArrayList<>();
+    private static final List<Path> tempFiles = new ArrayList<>();
+
+    static {
+        // Progress messages would otherwise be printed (and measured) on every invocation
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    private BenchmarkWorkloads() {
+    }
+
+    public static Workload create(String name, int participantCount, int teamSize) throws Exception {
+        switch (name) {
+            case "balanced.formTeams": {
+                BalancedTeamStrategy strategy = new BalancedTeamStrategy();
+                List<Participant> participants = participants(participantCount);
+                return () -> strategy.formTeams(participants, teamSize);
+            }
+            case "balanced.formTeamsParallel": {
+                BalancedTeamStrategy strategy = new BalancedTeamStrategy();
+                List<Participant> participants = participants(participantCount);
+                return () -> strategy.formTeamsParallel(participants, teamSize);
+            }
+            case "builder.formTeamsParallel": {
+                TeamBuilder builder = new TeamBuilder();
+                builders.add(builder);
+                List<Participant> participants = participants(participantCount);
+                return () -> builder.formTeamsParallel(participants, teamSize);
+            }
+            case "builder.shutdown":
+                return () -> {
+                    builders.forEach(TeamBuilder::shutdown);
+                    builders.clear();
+                    return null;
+                };
+            case "team.addMembers": {
+                List<Participant> members = participants(participantCount);
+                return () -> {
+                    Team team = new Team("T1");
+                    for (Participant member : members) {
+                        team.addMember(member);
+                    }
+                    return team;
+                };
+            }
+            case "csv.loadParticipants": {
+                CSVDataHandler handler = new CSVDataHandler();
+                Path csv = writeParticipantsCsv(participants(participantCount));
+                return () -> handler.loadParticipants(csv.toString());
+            }
+            case "csv.parseParticipantLine": {
+                CSVDataHandler handler = new CSVDataHandler();
+                return () -> handler.parseParticipantLine(SAMPLE_LINE, 2);
+            }
+            case "csv.saveTeams": {
+                CSVDataHandler handler = new CSVDataHandler();
+                List<Team> teams = new BalancedTeamStrategy().formTeams(participants(participantCount), teamSize);
+                Path output = tempFile(".csv");
+                return () -> {
+                    handler.saveTeams(teams, output.toString());
+                    return output;
+                };
+            }
+            case "csv.cleanUp":
+                return () -> {
+                    for (Path path : tempFiles) {
+                        Files.deleteIfExists(path);
+                    }
+                    tempFiles.clear();
+                    return null;
+                };
+            default:
+                throw new IllegalArgumentException("Unknown workload: " + name);
+        }
+    }
+
+    public static ScoreWorkload createScore(String name, int participantCount, int teamSize) {
+        if (!name.equals("team.getBalanceScore")) {
+            throw new IllegalArgumentException("Unknown score workload: " + name);
+        }
+        Team team = new Team("T1");
+        participants(participantCount).forEach(team::addMember);
+        return team::getBalanceScore;
+    }
+
+    // Deterministic pool so every run measures the same input
+    static List<Participant> participants(int count) {
+        Random random = new Random(SEED);
+        Role[] roles = Role.values();
+        List<Participant> participants = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            participants.add(new Participant("P" + i, "Participant_" + i, "user" + i + "@university.edu",
+                    GAMES[random.nextInt(GAMES.length)], 1 + random.nextInt(10),
+                    roles[random.nextInt(roles.length)], 50 + random.nextInt(51)));
+        }
+        return participants;
+    }
+
+    private static Path writeParticipantsCsv(List<Participant> participants) throws IOException {
+        Path csv = tempFile(".csv");
+        try (BufferedWriter writer = Files.newBufferedWriter(csv)) {
+            writer.write("ID,Name,Email,PreferredGame,SkillLevel,PreferredRole,PersonalityScore,PersonalityType");
+            writer.newLine();
+            for (Participant p : participants) {
+                writer.write(String.join(",", p.getId(), p.getName(), p.getEmail(), p.getPreferredGame(),
+                        String.valueOf(p.getSkillLevel()), p.getPreferredRole().toString(),
+                        String.valueOf(p.getPersonalityScore()), p.getPersonalityType().toString()));
+                writer.newLine();
+            }
+        }
+        return csv;
+    }
+
+    private static Path tempFile(String suffix) throws IOException {
+        Path path = Files.createTempFile("teamgame-bench", suffix);
+        tempFiles.add(path);
+        return path;
+    }
+}
@@ -0,0 +1,44 @@
+package com.meowclouds.teamgame.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CsvBenchmark {
+    @Param({"1000", "100000"})
+    public int participants;
+
+    @Param({"5"})
+    public int teamSize;
+
+    private Workload loadParticipants;
+    private Workload saveTeams;
+
+    @Setup
+    public void setUp() throws Exception {
+        loadParticipants = Workloads.create("csv.loadParticipants", participants, teamSize);
+        saveTeams = Workloads.create("csv.saveTeams", participants, teamSize);
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        Workloads.create("csv.cleanUp", 0, 0).run();
+    }
+
+    @Benchmark
+    public Object loadParticipants() throws Exception {
+        return loadParticipants.run();
+    }
+
+    @Benchmark
+    public Object saveTeams() throws Exception {
+        return saveTeams.run();
+    }
+
+}
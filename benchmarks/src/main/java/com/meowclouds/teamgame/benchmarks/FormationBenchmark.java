@@ -0,0 +1,38 @@
+package com.meowclouds.teamgame.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FormationBenchmark {
+    @Param({"100", "1000", "5000"})
+    public int participants;
+
+    @Param({"4", "6"})
+    public int teamSize;
+
+    private Workload sequential;
+    private Workload parallel;
+
+    @Setup
+    public void setUp() throws Exception {
+        sequential = Workloads.create("balanced.formTeams", participants, teamSize);
+        parallel = Workloads.create("balanced.formTeamsParallel", participants, teamSize);
+    }
+
+    @Benchmark
+    public Object formTeams() throws Exception {
+        return sequential.run();
+    }
+
+    @Benchmark
+    public Object formTeamsParallel() throws Exception {
+        return parallel.run();
+    }
+}
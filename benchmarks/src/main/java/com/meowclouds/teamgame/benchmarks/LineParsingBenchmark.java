@@ -0,0 +1,25 @@
+package com.meowclouds.teamgame.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LineParsingBenchmark {
+    private Workload parseLine;
+
+    @Setup
+    public void setUp() throws Exception {
+        parseLine = Workloads.create("csv.parseParticipantLine", 1, 1);
+    }
+
+    @Benchmark
+    public Object parseParticipantLine() throws Exception {
+        return parseLine.run();
+    }
+}
@@ -0,0 +1,6 @@
+package com.meowclouds.teamgame.benchmarks;
+
+// Workload returning a primitive, so boxing does not show up in the allocation figures
+public interface ScoreWorkload {
+    double run();
+}
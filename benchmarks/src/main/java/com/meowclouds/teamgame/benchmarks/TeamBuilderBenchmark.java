@@ -0,0 +1,37 @@
+package com.meowclouds.teamgame.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// TeamBuilder switches to batch-splitting above 50 participants
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TeamBuilderBenchmark {
+    @Param({"40", "50", "51", "200", "5000"})
+    public int participants;
+
+    @Param({"5"})
+    public int teamSize;
+
+    private Workload formTeamsParallel;
+
+    @Setup
+    public void setUp() throws Exception {
+        formTeamsParallel = Workloads.create("builder.formTeamsParallel", participants, teamSize);
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        Workloads.create("builder.shutdown", 0, 0).run();
+    }
+
+    @Benchmark
+    public Object formTeamsParallel() throws Exception {
+        return formTeamsParallel.run();
+    }
+}
@@ -0,0 +1,36 @@
+package com.meowclouds.teamgame.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TeamScoringBenchmark {
+    @Param({"4", "6", "10"})
+    public int teamSize;
+
+    private Workload addMembers;
+    private ScoreWorkload balanceScore;
+
+    @Setup
+    public void setUp() throws Exception {
+        addMembers = Workloads.create("team.addMembers", teamSize, teamSize);
+        balanceScore = Workloads.createScore("team.getBalanceScore", teamSize, teamSize);
+    }
+
+    // Builds a fresh team of teamSize members
+    @Benchmark
+    public Object addMembers() throws Exception {
+        return addMembers.run();
+    }
+
+    @Benchmark
+    public double getBalanceScore() {
+        return balanceScore.run();
+    }
+}
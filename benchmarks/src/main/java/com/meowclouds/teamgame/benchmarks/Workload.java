@@ -0,0 +1,8 @@
+package com.meowclouds.teamgame.benchmarks;
+
+// One measured operation against the application. The application classes live in the
+// default package, which named packages cannot reference, so benchmarks only see this
+// interface and the fixtures build the real calls behind it.
+public interface Workload {
+    Object run() throws Exception;
+}
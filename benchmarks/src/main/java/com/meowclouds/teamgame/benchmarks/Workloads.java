@@ -0,0 +1,29 @@
+package com.meowclouds.teamgame.benchmarks;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+// Looks up BenchmarkWorkloads (default package) reflectively, once per setup
+final class Workloads {
+    private static final String FIXTURE_CLASS = "BenchmarkWorkloads";
+
+    private Workloads() {
+    }
+
+    static Workload create(String name, int participants, int teamSize) throws Exception {
+        return (Workload) invoke("create", name, participants, teamSize);
+    }
+
+    static ScoreWorkload createScore(String name, int participants, int teamSize) throws Exception {
+        return (ScoreWorkload) invoke("createScore", name, participants, teamSize);
+    }
+
+    private static Object invoke(String factoryName, String name, int participants, int teamSize) throws Exception {
+        Method factory = Class.forName(FIXTURE_CLASS).getMethod(factoryName, String.class, int.class, int.class);
+        try {
+            return factory.invoke(null, name, participants, teamSize);
+        } catch (InvocationTargetException e) {
+            throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+        }
+    }
+}
@@ -0,0 +1,206 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// The application's two execution resources, shared by every component:
+//   io()      - a virtual thread per task, for blocking work: file loading, appends, exports
+//               and survey handling
+//   compute() - one ForkJoinPool sized to the machine, for CPU-bound work: team formation
+//               and CSV parsing
+// Nothing else should create threads or use the common pool, so CPU work can never
+// oversubscribe the cores and blocking work never starves the compute pool.
+// Both report their backlog as queue depth gauges: "compute" counts queued tasks, and "io",
+// which has no queue (every task gets its own thread), counts tasks not yet finished.
+public final class AppExecutors {
+    private static final CountingExecutor IO = new CountingExecutor(Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("teammate-io-", 0).factory()));
+    private static final ForkJoinPool COMPUTE = createComputePool();
+
+    static {
+        TeamMateMetrics metrics = TeamMateMetrics.getInstance();
+        metrics.registerQueue("io", IO::inFlight);
+        metrics.registerExecutor("compute", COMPUTE);
+    }
+
+    private AppExecutors() {
+    }
+
+    public static ExecutorService io() {
+        return IO;
+    }
+
+    public static ForkJoinPool compute() {
+        return COMPUTE;
+    }
+
+    // Runs the tasks on the compute pool and waits for all of them. When one fails or the
+    // caller is interrupted, the others are cancelled (interrupting those already running)
+    // and awaited before this returns, so no subtask outlives the call. This is the
+    // guarantee StructuredTaskScope.ShutdownOnFailure gives, without the preview API.
+    // Callers that are themselves compute workers (a formation job, say) run any subtask no
+    // other worker has picked up yet, and wait for the rest as a managed blocker so the pool
+    // can start a spare thread; otherwise a one-core pool would wait on its own queue forever.
+    static <T> List<T> invokeAll(List<? extends Callable<T>> tasks) throws ExecutionException, InterruptedException {
+        List<Subtask<T>> subtasks = new ArrayList<>(tasks.size());
+        for (Callable<T> task : tasks) {
+            Subtask<T> subtask = new Subtask<>(task);
+            subtasks.add(subtask);
+            COMPUTE.execute(subtask);
+        }
+
+        boolean helping = Thread.currentThread() instanceof ForkJoinWorkerThread worker && worker.getPool() == COMPUTE;
+        List<T> results = new ArrayList<>(subtasks.size());
+        try {
+            for (Subtask<T> subtask : subtasks) {
+                if (helping) {
+                    subtask.run();
+                }
+                ForkJoinPool.managedBlock(subtask);
+                results.add(subtask.get());
+            }
+            return results;
+        } catch (ExecutionException | InterruptedException | RuntimeException e) {
+            subtasks.forEach(subtask -> subtask.cancel(true));
+            // Claims the ones still queued, so only subtasks running elsewhere are awaited
+            subtasks.forEach(Subtask::run);
+            subtasks.forEach(Subtask::awaitFinished);
+            throw e;
+        }
+    }
+
+    // FutureTask that runs at most once, whether a worker or the waiting caller gets to it
+    // first, and can also be waited on after cancellation, until its run() has returned
+    private static final class Subtask<T> extends FutureTask<T> implements ForkJoinPool.ManagedBlocker {
+        private final AtomicBoolean claimed = new AtomicBoolean();
+        private final CountDownLatch finished = new CountDownLatch(1);
+
+        Subtask(Callable<T> callable) {
+            super(callable);
+        }
+
+        @Override
+        public void run() {
+            if (!claimed.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                super.run();
+            } finally {
+                finished.countDown();
+            }
+        }
+
+        @Override
+        public boolean block() throws InterruptedException {
+            finished.await();
+            return true;
+        }
+
+        @Override
+        public boolean isReleasable() {
+            return finished.getCount() == 0;
+        }
+
+        void awaitFinished() {
+            boolean interrupted = false;
+            while (true) {
+                try {
+                    ForkJoinPool.managedBlock(this);
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    // Passes tasks through to another executor, counting those submitted but not yet finished
+    private static final class CountingExecutor extends AbstractExecutorService {
+        private final ExecutorService delegate;
+        private final AtomicInteger inFlight = new AtomicInteger();
+
+        CountingExecutor(ExecutorService delegate) {
+            this.delegate = delegate;
+        }
+
+        int inFlight() {
+            return inFlight.get();
+        }
+
+        @Override
+        public void execute(Runnable task) {
+            inFlight.incrementAndGet();
+            try {
+                delegate.execute(() -> {
+                    try {
+                        task.run();
+                    } finally {
+                        inFlight.decrementAndGet();
+                    }
+                });
+            } catch (RuntimeException e) {
+                inFlight.decrementAndGet();
+                throw e;
+            }
+        }
+
+        @Override
+        public void shutdown() {
+            delegate.shutdown();
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return delegate.shutdownNow();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return delegate.isShutdown();
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return delegate.isTerminated();
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+            return delegate.awaitTermination(timeout, unit);
+        }
+    }
+
+    // Waits briefly for in-flight I/O (such as queued exports) before the JVM exits
+    public static void shutdown() {
+        IO.shutdown();
+        COMPUTE.shutdown();
+        try {
+            if (!IO.awaitTermination(5, TimeUnit.SECONDS)) {
+                IO.shutdownNow();
+            }
+            if (!COMPUTE.awaitTermination(5, TimeUnit.SECONDS)) {
+                COMPUTE.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            IO.shutdownNow();
+            COMPUTE.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static ForkJoinPool createComputePool() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        ForkJoinPool.ForkJoinWorkerThreadFactory factory = pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("teammate-compute-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+        return new ForkJoinPool(Runtime.getRuntime().availableProcessors(), factory, null, false);
+    }
+}
@@ -0,0 +1,110 @@
+// A ScoringConfig compiled for the hot path. A team's balance score depends only on a handful
+// of counts, never on who the members are: whether any game is over its cap, how many distinct
+// roles there are, how many leaders and thinkers, and the member count (which sets the role
+// target for small teams). Each count is clamped to the highest value the rules can tell apart
+// and packed into a signature, and the scores of all signatures are computed once here.
+// Scoring is then an index into a small array of primitives, which is never written after
+// construction, so one evaluator is safely shared by every thread of every run.
+public final class BalanceEvaluator {
+    public static final BalanceEvaluator DEFAULT = ScoringConfig.defaults().compile();
+
+    private final ScoringConfig config;
+    private final int maxPerGame;
+    private final int roleDiversityTarget;
+    private final int minLeaders;
+    private final int minThinkers;
+    private final int maxThinkers;
+    private final double balancedThreshold;
+    private final double maxScore;
+    private final double skillParityWeight;
+
+    private final int memberLevels;  // 0..target; larger teams have the same role target
+    private final int roleLevels;  // 0..target; more roles score the same
+    private final int leaderLevels;  // 0..minLeaders
+    private final int thinkerLevels;  // 0..maxThinkers, then too many
+    private final double[] scores;
+
+    BalanceEvaluator(ScoringConfig config) {
+        this.config = config;
+        this.maxPerGame = config.getMaxPerGame();
+        this.roleDiversityTarget = config.getRoleDiversityTarget();
+        this.minLeaders = config.getMinLeaders();
+        this.minThinkers = config.getMinThinkers();
+        this.maxThinkers = config.getMaxThinkers();
+        this.balancedThreshold = config.getBalancedThreshold();
+        this.maxScore = config.getGameVarietyWeight() + config.getRoleDiversityWeight()
+                + config.getPersonalityMixWeight();
+        this.skillParityWeight = config.getSkillParityWeight();
+
+        this.memberLevels = roleDiversityTarget + 1;
+        this.roleLevels = roleDiversityTarget + 1;
+        this.leaderLevels = minLeaders + 1;
+        this.thinkerLevels = maxThinkers + 2;
+        this.scores = new double[2 * roleLevels * leaderLevels * thinkerLevels * memberLevels];
+        for (int overCap = 0; overCap < 2; overCap++) {
+            for (int roles = 0; roles < roleLevels; roles++) {
+                for (int leaders = 0; leaders < leaderLevels; leaders++) {
+                    for (int thinkers = 0; thinkers < thinkerLevels; thinkers++) {
+                        for (int members = 0; members < memberLevels; members++) {
+                            scores[signature(members, overCap, roles, leaders, thinkers)] =
+                                    computeScore(members, overCap, roles, leaders, thinkers);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    // The scoring rules themselves, evaluated once per signature
+    private double computeScore(int memberCount, int gamesOverCap, int distinctRoles, int leaders, int thinkers) {
+        double score = 0.0;
+        boolean hasGameVariety = gamesOverCap == 0;
+        boolean hasRoleDiversity = distinctRoles >= Math.min(roleDiversityTarget, memberCount);
+        boolean hasGoodPersonalityMix = leaders >= minLeaders && thinkers >= minThinkers && thinkers <= maxThinkers;
+
+        score += hasGameVariety ? config.getGameVarietyWeight() : 0;
+        score += hasRoleDiversity ? config.getRoleDiversityWeight() : 0;
+        score += hasGoodPersonalityMix ? config.getPersonalityMixWeight() : config.getPersonalityPartialWeight();
+
+        return score;
+    }
+
+    public int signature(int memberCount, int gamesOverCap, int distinctRoles, int leaders, int thinkers) {
+        int signature = gamesOverCap > 0 ? 1 : 0;
+        signature = signature * roleLevels + Math.min(distinctRoles, roleLevels - 1);
+        signature = signature * leaderLevels + Math.min(leaders, leaderLevels - 1);
+        signature = signature * thinkerLevels + Math.min(thinkers, thinkerLevels - 1);
+        return signature * memberLevels + Math.min(memberCount, memberLevels - 1);
+    }
+
+    public double score(int signature) {
+        return scores[signature];
+    }
+
+    public double score(int memberCount, int gamesOverCap, int distinctRoles, int leaders, int thinkers) {
+        return scores[signature(memberCount, gamesOverCap, distinctRoles, leaders, thinkers)];
+    }
+
+    public boolean isBalanced(double score) {
+        return score >= balancedThreshold;
+    }
+
+    // Whether a team with these counts falls short of the role target or the personality bounds
+    boolean lacksRoleDiversity(int memberCount, int distinctRoles) {
+        return distinctRoles < Math.min(roleDiversityTarget, memberCount);
+    }
+
+    boolean hasPoorPersonalityMix(int leaders, int thinkers) {
+        return leaders < minLeaders || thinkers < minThinkers || thinkers > maxThinkers;
+    }
+
+    public ScoringConfig getConfig() { return config; }
+    public int getMaxPerGame() { return maxPerGame; }
+    public int getRoleDiversityTarget() { return roleDiversityTarget; }
+    public int getMinLeaders() { return minLeaders; }
+    public int getMinThinkers() { return minThinkers; }
+    public int getMaxThinkers() { return maxThinkers; }
+    // Score of a team that meets every rule
+    public double getMaxScore() { return maxScore; }
+    public double getSkillParityWeight() { return skillParityWeight; }
+}
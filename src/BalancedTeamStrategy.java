@@ -1,87 +1,266 @@
 import java.util.*;
 import java.util.concurrent.*;
-import java.util.stream.*;
+import java.util.concurrent.atomic.*;
+import java.util.random.RandomGenerator;
 
 public class BalancedTeamStrategy implements TeamFormationStrategy {
     private static final int MAX_ATTEMPTS = 100;
     private static final int PARALLEL_THRESHOLD = 20;
+    private static final int MAX_ATTEMPT_BATCH = 16;
+    private static final double PERFECT_SCORE = Double.POSITIVE_INFINITY;  // Capped at the rules' best score
+    private static final int PLACEMENT_PROBES = 8;  // Teams tried past the dealt one before giving up
+    private static final int[] PERSONALITY_ORDER = {
+            PersonalityType.LEADER.ordinal(),
+            PersonalityType.THINKER.ordinal(),
+            PersonalityType.BALANCED.ordinal()
+    };
+
+    private final int maxAttempts;
+    private final int workerCount;
+    private final double targetScore;
+
+    public BalancedTeamStrategy() {
+        this(MAX_ATTEMPTS, Runtime.getRuntime().availableProcessors(), PERFECT_SCORE);
+    }
+
+    // Stops early once an attempt reaches targetScore (average team balance score), or the
+    // best score the scoring rules allow if that is lower
+    public BalancedTeamStrategy(int maxAttempts, int workerCount, double targetScore) {
+        if (maxAttempts < 1 || workerCount < 1) {
+            throw new IllegalArgumentException("Attempt and worker counts must be positive");
+        }
+        this.maxAttempts = maxAttempts;
+        this.workerCount = workerCount;
+        this.targetScore = targetScore;
+    }
 
     @Override
     public List<Team> formTeams(List<Participant> participants, int teamSize) {
-        List<Team> bestTeams = null;
+        return formTeams(participants, teamSize, FormationOptions.defaults());
+    }
+
+    // Attempt k always draws from the stream derived from (seed, k), so a seeded run returns
+    // the same teams as formTeamsParallel with the same seed. With a time budget in the
+    // options the attempt cap is lifted and the loop runs until the deadline instead.
+    @Override
+    public List<Team> formTeams(List<Participant> participants, int teamSize, FormationOptions options) {
+        ParticipantTable table = ParticipantTable.of(participants);
+        if (table.size() == 0) {
+            return new ArrayList<>();
+        }
+
+        long startTime = System.nanoTime();
+        FlightRecorderEvents.StrategyRun runEvent = new FlightRecorderEvents.StrategyRun();
+        runEvent.begin();
+
+        long seed = options.resolveSeed();
+        long deadline = options.deadlineFrom(startTime);
+        int attemptLimit = attemptLimit(options);
+        BalanceEvaluator evaluator = options.getEvaluator();
+        double target = Math.min(options.targetScoreOr(targetScore), evaluator.getMaxScore());
+        FormationProgressListener progress = options.getProgressListener();
+        Workspace workspace = new Workspace(table, teamSize, evaluator);
+        int[] bestOrder = new int[table.size()];
         double bestScore = -1;
+        int attempt = 0;
 
-        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
-            List<Team> currentTeams = attemptFormation(new ArrayList<>(participants), teamSize);
-            double currentScore = calculateOverallBalanceScore(currentTeams);
+        // Same batching as the parallel search so the JFR batch events are comparable
+        while (attempt < attemptLimit && bestScore < target && !(attempt > 0 && outOfTime(deadline))) {
+            FlightRecorderEvents.AttemptBatch batchEvent = new FlightRecorderEvents.AttemptBatch();
+            batchEvent.begin();
+            int batchStart = attempt;
+            int batchEnd = Math.min(attempt + MAX_ATTEMPT_BATCH, attemptLimit);
+            double batchBest = -1;
 
-            if (currentScore > bestScore) {
-                bestScore = currentScore;
-                bestTeams = currentTeams;
+            for (; attempt < batchEnd && bestScore < target && !(attempt > 0 && outOfTime(deadline)); attempt++) {
+                double currentScore = attemptFormation(workspace, FormationOptions.randomFor(seed, attempt));
+                batchBest = Math.max(batchBest, currentScore);
+
+                if (currentScore > bestScore) {
+                    bestScore = currentScore;
+                    System.arraycopy(workspace.order, 0, bestOrder, 0, bestOrder.length);
+                }
             }
+            commitBatch(batchEvent, batchStart, attempt - batchStart, table.size(), teamSize, batchBest);
+            progress.onProgress(attempt, progressTotal(attemptLimit), bestScore);
         }
 
-        return bestTeams != null ? bestTeams :
-                attemptFormation(new ArrayList<>(participants), teamSize);
+        TeamMateMetrics metrics = TeamMateMetrics.getInstance();
+        metrics.recordAttempts(attempt);
+        metrics.recordSearchTime(System.nanoTime() - startTime);
+        commitRun(runEvent, table.size(), teamSize, 1, seed, attempt, bestScore);
+        return table.toRoundRobinTeams(bestOrder, workspace.teams.length, evaluator);
     }
 
-    // New parallel implementation
+    @Override
     public List<Team> formTeamsParallel(List<Participant> participants, int teamSize) {
-        System.out.println("Using parallel team formation with " +
-                Runtime.getRuntime().availableProcessors() + " processors");
+        return formTeamsParallel(participants, teamSize, FormationOptions.defaults());
+    }
+
+    // Cooperative parallel restarts: workers claim batches of attempts, publish improvements
+    // to a shared incumbent and discard everything that does not beat it. The incumbent is
+    // ordered exactly like the sequential loop picks its winner, so the result only depends
+    // on the seed, never on the worker count or on which thread finished first.
+    @Override
+    public List<Team> formTeamsParallel(List<Participant> participants, int teamSize, FormationOptions options) {
+        int attemptLimit = attemptLimit(options);
+        int workers = Math.min(workerCount, attemptLimit);
+
+        ParticipantTable table = ParticipantTable.of(participants);
+        if (table.size() == 0) {
+            return new ArrayList<>();
+        }
+
+        long startTime = System.nanoTime();
+        FlightRecorderEvents.StrategyRun runEvent = new FlightRecorderEvents.StrategyRun();
+        runEvent.begin();
+        long seed = options.resolveSeed();
+        BalanceEvaluator evaluator = options.getEvaluator();
+        ParallelSearch search = new ParallelSearch(table, teamSize, evaluator, seed, attemptLimit,
+                Math.min(options.targetScoreOr(targetScore), evaluator.getMaxScore()),
+                options.deadlineFrom(startTime),
+                Math.max(1, Math.min(MAX_ATTEMPT_BATCH, attemptLimit / (workers * 4))),
+                options.getProgressListener());
+
+        List<CompletableFuture<Void>> helpers = new ArrayList<>(workers - 1);
+        for (int i = 1; i < workers; i++) {
+            helpers.add(CompletableFuture.runAsync(search::work, AppExecutors.compute()));
+        }
+        try {
+            search.work();  // The calling thread is the first worker
+        } finally {
+            if (Thread.currentThread().isInterrupted()) {
+                search.cancelled.set(true);
+            }
+            // Structured: every helper has finished before we return or rethrow; a failed
+            // worker has already cancelled its siblings
+            CompletableFuture.allOf(helpers.toArray(new CompletableFuture<?>[0])).join();
+        }
+        TeamMateMetrics.getInstance().recordSearchTime(System.nanoTime() - startTime);
+
+        TeamAttempt best = search.incumbent.get();
+        commitRun(runEvent, table.size(), teamSize, workers, seed,
+                search.evaluatedAttempts.get(), best.getScore());
+        return table.toRoundRobinTeams(best.getOrder(), table.teamCountFor(teamSize), evaluator);
+    }
+
+    // A time budget replaces the attempt cap: keep going until the deadline
+    private int attemptLimit(FormationOptions options) {
+        return options.hasTimeBudget() ? Integer.MAX_VALUE : maxAttempts;
+    }
 
-        return IntStream.range(0, MAX_ATTEMPTS)
-                .parallel()
-                .mapToObj(attempt -> {
-                    List<Team> teams = attemptFormation(new ArrayList<>(participants), teamSize);
-                    double score = calculateOverallBalanceScore(teams);
-                    return new TeamAttempt(teams, score);
-                })
-                .max(Comparator.comparingDouble(TeamAttempt::getScore))
-                .map(TeamAttempt::getTeams)
-                .orElse(attemptFormation(new ArrayList<>(participants), teamSize));
+    // Timed runs have no fixed number of attempts to report progress against
+    private static long progressTotal(int attemptLimit) {
+        return attemptLimit == Integer.MAX_VALUE ? -1 : attemptLimit;
     }
 
-    private List<Team> attemptFormation(List<Participant> participants, int teamSize) {
-        // Use thread-safe shuffling
-        Collections.shuffle(participants, ThreadLocalRandom.current());
+    // Deadline passed or the thread was interrupted. The interrupt flag is left set, so the
+    // caller still sees it after we return the best formation found so far.
+    private static boolean outOfTime(long deadline) {
+        return FormationOptions.isPast(deadline) || Thread.currentThread().isInterrupted();
+    }
 
-        List<Team> teams = new ArrayList<>();
-        int teamCount = (int) Math.ceil((double) participants.size() / teamSize);
+    private void commitRun(FlightRecorderEvents.StrategyRun event, int participants, int teamSize,
+                           int workers, long seed, int attempts, double bestScore) {
+        if (event.shouldCommit()) {
+            event.strategy = getStrategyName();
+            event.participants = participants;
+            event.teamSize = teamSize;
+            event.workers = workers;
+            event.seed = seed;
+            event.attempts = attempts;
+            event.bestScore = bestScore;
+            event.commit();
+        }
+    }
 
-        for (int i = 0; i < teamCount; i++) {
-            teams.add(new Team("T" + (i + 1)));
+    private static void commitBatch(FlightRecorderEvents.AttemptBatch event, int firstAttempt, int attempts,
+                                    int participants, int teamSize, double bestScore) {
+        if (event.shouldCommit()) {
+            event.firstAttempt = firstAttempt;
+            event.attempts = attempts;
+            event.participants = participants;
+            event.teamSize = teamSize;
+            event.bestScore = bestScore;
+            event.commit();
         }
+    }
 
-        // Sort by personality to distribute leaders first
-        participants.sort((p1, p2) -> {
-            boolean p1Leader = p1.getPersonalityType() == PersonalityType.LEADER;
-            boolean p2Leader = p2.getPersonalityType() == PersonalityType.LEADER;
-            boolean p1Thinker = p1.getPersonalityType() == PersonalityType.THINKER;
-            boolean p2Thinker = p2.getPersonalityType() == PersonalityType.THINKER;
+    // Shuffles, puts leaders then thinkers first, deals round-robin into the workspace
+    // teams and returns the average balance score. A participant the dealt team cannot take
+    // without breaking a hard limit goes to the next team with room that can. Team sizes stay
+    // those of a plain round-robin deal, so the final teams are written back to
+    // workspace.order in round-robin layout.
+    double attemptFormation(Workspace workspace, RandomGenerator random) {
+        // Inside-out Fisher-Yates: builds the permutation from scratch, so an attempt depends
+        // only on its own random stream and not on what the workspace held before
+        int[] shuffled = workspace.shuffled;
+        for (int i = 0; i < shuffled.length; i++) {
+            int j = random.nextInt(i + 1);
+            shuffled[i] = shuffled[j];
+            shuffled[j] = i;
+        }
 
-            if (p1Leader && !p2Leader) return -1;
-            if (!p1Leader && p2Leader) return 1;
-            if (p1Thinker && !p2Thinker) return -1;
-            if (!p1Thinker && p2Thinker) return 1;
-            return 0;
-        });
+        // Stable partition by personality to distribute leaders first, then thinkers
+        ParticipantTable table = workspace.table;
+        int[] order = workspace.order;
+        int next = 0;
+        for (int rank = 0; rank < PERSONALITY_ORDER.length; rank++) {
+            int personality = PERSONALITY_ORDER[rank];
+            for (int index : shuffled) {
+                if (table.personality(index) == personality) {
+                    order[next++] = index;
+                }
+            }
+        }
 
-        // Round-robin distribution
-        int teamIndex = 0;
-        for (Participant participant : participants) {
-            teams.get(teamIndex).addMember(participant);
-            teamIndex = (teamIndex + 1) % teams.size();
+        // Round-robin distribution, steered around the hard limits
+        TeamComposition[] teams = workspace.teams;
+        for (TeamComposition team : teams) {
+            team.clear();
+        }
+        int teamCount = teams.length;
+        int baseSize = order.length / teamCount;
+        int largerTeams = order.length % teamCount;  // The first teams take one extra member
+        for (int k = 0; k < order.length; k++) {
+            int team = placementFor(teams, k % teamCount, order[k], baseSize, largerTeams);
+            teams[team].add(order[k]);
+        }
+        for (int k = 0; k < order.length; k++) {
+            order[k] = teams[k % teamCount].memberAt(k / teamCount);
         }
 
-        return teams;
+        return calculateOverallBalanceScore(teams);
     }
 
-    private double calculateOverallBalanceScore(List<Team> teams) {
-        return teams.parallelStream()
-                .mapToDouble(Team::getBalanceScore)
-                .average()
-                .orElse(0.0);
+    // The dealt team or, if it cannot accept the participant, the first of the next
+    // PLACEMENT_PROBES teams with room that can. Failing that, the first team with room.
+    private static int placementFor(TeamComposition[] teams, int dealt, int index, int baseSize, int largerTeams) {
+        int firstWithRoom = -1;
+        for (int step = 0; step < teams.length; step++) {
+            int team = dealt + step < teams.length ? dealt + step : dealt + step - teams.length;
+            if (teams[team].size() >= baseSize + (team < largerTeams ? 1 : 0)) {
+                continue;
+            }
+            if (teams[team].canAccept(index)) {
+                return team;
+            }
+            if (firstWithRoom < 0) {
+                firstWithRoom = team;
+            }
+            if (step >= PLACEMENT_PROBES) {
+                break;
+            }
+        }
+        return firstWithRoom;
+    }
+
+    static double calculateOverallBalanceScore(TeamComposition[] teams) {
+        double total = 0;
+        for (TeamComposition team : teams) {
+            total += team.getBalanceScore();
+        }
+        return teams.length == 0 ? 0.0 : total / teams.length;
     }
 
     @Override
@@ -94,17 +273,157 @@ public class BalancedTeamStrategy implements TeamFormationStrategy {
         return "Forms teams with balanced distribution of games, roles, and personality types";
     }
 
+    // Scratch buffers reused across the attempts of one thread
+    static class Workspace {
+        final ParticipantTable table;
+        final int[] shuffled;
+        final int[] order;
+        final TeamComposition[] teams;
+
+        Workspace(ParticipantTable table, int teamSize, BalanceEvaluator evaluator) {
+            this.table = table;
+            this.shuffled = new int[table.size()];
+            this.order = new int[table.size()];
+            this.teams = new TeamComposition[table.teamCountFor(teamSize)];
+            for (int t = 0; t < teams.length; t++) {
+                teams[t] = new TeamComposition(table, teamSize, evaluator);
+            }
+        }
+    }
+
+    private class ParallelSearch {
+        private final ParticipantTable table;
+        private final int teamSize;
+        private final BalanceEvaluator evaluator;
+        private final long seed;
+        private final double target;
+        private final long deadline;
+        private final int batchSize;
+        private final long progressTotal;
+        private final FormationProgressListener progress;
+        private final AtomicInteger nextAttempt = new AtomicInteger();
+        private final AtomicInteger evaluatedAttempts = new AtomicInteger();
+        // Lowest attempt index that reached the target; nothing after it can win
+        private final AtomicInteger stopIndex;
+        private final AtomicBoolean cancelled = new AtomicBoolean();
+        private final AtomicReference<TeamAttempt> incumbent = new AtomicReference<>();
+
+        ParallelSearch(ParticipantTable table, int teamSize, BalanceEvaluator evaluator, long seed,
+                       int attemptLimit, double target, long deadline, int batchSize, FormationProgressListener progress) {
+            this.table = table;
+            this.teamSize = teamSize;
+            this.evaluator = evaluator;
+            this.seed = seed;
+            this.target = target;
+            this.deadline = deadline;
+            this.batchSize = batchSize;
+            this.stopIndex = new AtomicInteger(attemptLimit);
+            this.progressTotal = progressTotal(attemptLimit);
+            this.progress = progress;
+        }
+
+        // Never stops before some worker has published a formation, so there is always a
+        // result, unless a worker failed and the whole search is being abandoned
+        private boolean shouldStop() {
+            if (cancelled.get()) {
+                return true;
+            }
+            if (incumbent.get() == null) {
+                return false;
+            }
+            if (outOfTime(deadline)) {
+                cancelled.set(true);
+                return true;
+            }
+            return false;
+        }
+
+        void work() {
+            int evaluated = 0;
+            try {
+                Workspace workspace = new Workspace(table, teamSize, evaluator);
+
+                while (!shouldStop()) {
+                    int start = nextAttempt.getAndAdd(batchSize);
+                    if (start < 0 || start >= stopIndex.get()) {
+                        return;
+                    }
+                    int end = Math.min(start + batchSize, stopIndex.get());
+                    FlightRecorderEvents.AttemptBatch batchEvent = new FlightRecorderEvents.AttemptBatch();
+                    batchEvent.begin();
+                    double batchBest = -1;
+                    int attempt = start;
+
+                    while (attempt < end && attempt < stopIndex.get() && !shouldStop()) {
+                        double score = attemptFormation(workspace, FormationOptions.randomFor(seed, attempt));
+                        evaluated++;
+                        batchBest = Math.max(batchBest, score);
+                        if (beats(score, attempt, incumbent.get())) {
+                            publish(new TeamAttempt(workspace.order.clone(), score, attempt));
+                        }
+                        attempt++;
+                        if (score >= target) {
+                            stopIndex.accumulateAndGet(attempt - 1, Math::min);
+                            break;
+                        }
+                    }
+                    commitBatch(batchEvent, start, attempt - start, table.size(), teamSize, batchBest);
+                    if (attempt > start) {  // Anything evaluated has been offered to the incumbent
+                        int done = evaluatedAttempts.addAndGet(attempt - start);
+                        progress.onProgress(done, progressTotal, incumbent.get().getScore());
+                    }
+                }
+            } catch (RuntimeException | Error e) {
+                cancelled.set(true);
+                throw e;
+            } finally {
+                TeamMateMetrics.getInstance().recordAttempts(evaluated);
+            }
+        }
+
+        // Same winner as the sequential loop: the first attempt that reaches the target,
+        // otherwise the highest score with the lowest attempt index on ties
+        private boolean beats(double score, int attempt, TeamAttempt best) {
+            if (best == null) {
+                return true;
+            }
+            boolean reached = score >= target;
+            boolean bestReached = best.getScore() >= target;
+            if (reached != bestReached) {
+                return reached;
+            }
+            if (!reached && score != best.getScore()) {
+                return score > best.getScore();
+            }
+            return attempt < best.getAttempt();
+        }
+
+        // Lock-free: retry only while the candidate still beats the shared incumbent
+        private void publish(TeamAttempt candidate) {
+            TeamAttempt best = incumbent.get();
+            while (beats(candidate.getScore(), candidate.getAttempt(), best)) {
+                if (incumbent.compareAndSet(best, candidate)) {
+                    return;
+                }
+                best = incumbent.get();
+            }
+        }
+    }
+
     // Helper class for parallel processing
     private static class TeamAttempt {
-        private final List<Team> teams;
+        private final int[] order;
         private final double score;
+        private final int attempt;
 
-        public TeamAttempt(List<Team> teams, double score) {
-            this.teams = teams;
+        public TeamAttempt(int[] order, double score, int attempt) {
+            this.order = order;
             this.score = score;
+            this.attempt = attempt;
         }
 
-        public List<Team> getTeams() { return teams; }
+        public int[] getOrder() { return order; }
         public double getScore() { return score; }
+        public int getAttempt() { return attempt; }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,228 @@
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Non-interactive mode for scripts and schedulers: load a participant file, form teams and
+// export them in one run, driven entirely by command-line arguments.
+// Exit codes: 0 success, 1 load/formation/export failure, 2 bad arguments.
+public class BatchMode {
+    static final int EXIT_OK = 0;
+    static final int EXIT_FAILED = 1;
+    static final int EXIT_USAGE = 2;
+
+    private static final String USAGE = String.join(System.lineSeparator(),
+            "Usage: TeamMateApplication --input <participants.csv> --team-size <n> --output <file> [options]",
+            "  --strategy <name>            balanced (default), local, exact (pools of up to 64),",
+            "                               or parity (evenly matched team skill)",
+            "  --seed <n>                   reproduce an earlier formation exactly",
+            "  --budget-ms <n>              return the best formation found within n milliseconds",
+            "  --target <score>             stop once every team reaches this balance score",
+            "  --scoring <file>             score teams by the rules in a properties file (see ScoringConfig)",
+            "  --format <csv|jsonl>         output format (default: from the output file name, else csv)",
+            "  --gzip                       gzip the output (default: when the output name ends in .gz)",
+            "  --quiet                      no progress lines",
+            "  --help                       show this help",
+            "   or: TeamMateApplication --serve [port]   (local HTTP service, see TeamMateServer)");
+
+    private final PrintStream out;
+    private final PrintStream err;
+
+    public BatchMode(PrintStream out, PrintStream err) {
+        this.out = out;
+        this.err = err;
+    }
+
+    public int run(String[] args) {
+        Map<String, String> arguments;
+        try {
+            arguments = parseArguments(args);
+            if (arguments.containsKey("help")) {
+                out.println(USAGE);
+                return EXIT_OK;
+            }
+        } catch (InvalidDataException e) {
+            err.println("Error: " + e.getMessage());
+            err.println(USAGE);
+            return EXIT_USAGE;
+        }
+
+        String input;
+        String output;
+        int teamSize;
+        TeamBuilder teamBuilder;
+        TeamExporter.Format format;
+        boolean gzip;
+        try {
+            input = required(arguments, "input");
+            output = required(arguments, "output");
+            teamSize = parsePositiveInt(required(arguments, "team-size"), "team-size");
+            teamBuilder = new TeamBuilder(TeamFormationStrategy.forName(arguments.getOrDefault("strategy", "balanced")));
+            teamBuilder.setOptions(buildOptions(arguments));
+            format = parseFormat(arguments.get("format"), output);
+            gzip = arguments.containsKey("gzip") || output.endsWith(".gz");
+        } catch (InvalidDataException e) {
+            err.println("Error: " + e.getMessage());
+            err.println(USAGE);
+            return EXIT_USAGE;
+        }
+
+        CSVDataHandler dataHandler = new CSVDataHandler();
+        try {
+            List<Participant> participants = dataHandler.loadParticipants(input);
+            if (participants.isEmpty()) {
+                err.println("Error: no valid participants in " + input);
+                return EXIT_FAILED;
+            }
+
+            out.println("Forming teams of " + teamSize + " from " + participants.size() + " participants using "
+                    + teamBuilder.getCurrentStrategyInfo());
+            List<Team> teams = teamBuilder.formTeamsParallel(participants, teamSize);
+            printSummary(teams);
+
+            dataHandler.exportTeams(teams, output, format, gzip);
+            return EXIT_OK;
+        } catch (DataLoadingException e) {
+            err.println("Error loading participants: " + e.getMessage());
+            return EXIT_FAILED;
+        } catch (DataSavingException e) {
+            err.println("Error saving teams: " + e.getMessage());
+            return EXIT_FAILED;
+        } catch (RuntimeException e) {
+            err.println("Team formation failed: " + e.getMessage());
+            return EXIT_FAILED;
+        } finally {
+            dataHandler.shutdown();
+        }
+    }
+
+    private FormationOptions buildOptions(Map<String, String> arguments) throws InvalidDataException {
+        FormationOptions options = FormationOptions.defaults();
+        if (arguments.containsKey("seed")) {
+            options = options.withSeed(parseLong(arguments.get("seed"), "seed"));
+        }
+        if (arguments.containsKey("budget-ms")) {
+            options = options.withTimeBudget(Duration.ofMillis(parsePositiveInt(arguments.get("budget-ms"), "budget-ms")));
+        }
+        if (arguments.containsKey("target")) {
+            double target = parseDouble(arguments.get("target"), "target");
+            if (target < 0) {
+                throw new InvalidDataException("--target cannot be negative");
+            }
+            options = options.withTargetScore(target);
+        }
+        if (arguments.containsKey("scoring")) {
+            try {
+                options = options.withScoring(ScoringConfig.load(arguments.get("scoring").trim()));
+            } catch (DataLoadingException e) {
+                throw new InvalidDataException(e.getMessage(), e);
+            }
+        }
+        if (!arguments.containsKey("quiet")) {
+            options = options.withProgressListener(new ConsoleProgressListener(out));
+        }
+        return options;
+    }
+
+    private void printSummary(List<Team> teams) {
+        long balanced = teams.stream().filter(Team::isBalanced).count();
+        out.printf("Formed %d teams, %d balanced, average balance score %.2f%n",
+                teams.size(), balanced, FormationScores.averageBalanceScore(teams));
+        out.printf("Skill spread %.2f, combined score %.2f%n",
+                FormationScores.skillSpread(teams), FormationScores.combinedScore(teams));
+    }
+
+    // Accepts "--name value" and "--name=value"; flags without a value map to ""
+    static Map<String, String> parseArguments(String[] args) throws InvalidDataException {
+        Map<String, String> arguments = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (!arg.startsWith("--") || arg.length() == 2) {
+                throw new InvalidDataException("Unexpected argument '" + arg + "'");
+            }
+            String name = arg.substring(2);
+            String value;
+            int equals = name.indexOf('=');
+            if (equals >= 0) {
+                value = name.substring(equals + 1);
+                name = name.substring(0, equals);
+            } else if (isFlag(name)) {
+                value = "";
+            } else if (i + 1 < args.length) {
+                value = args[++i];
+            } else {
+                throw new InvalidDataException("Missing value for --" + name);
+            }
+            if (!isKnown(name)) {
+                throw new InvalidDataException("Unknown option --" + name);
+            }
+            arguments.put(name, value);
+        }
+        return arguments;
+    }
+
+    private static boolean isFlag(String name) {
+        return name.equals("gzip") || name.equals("quiet") || name.equals("help");
+    }
+
+    private static boolean isKnown(String name) {
+        switch (name) {
+            case "input": case "output": case "team-size": case "strategy": case "seed":
+            case "budget-ms": case "target": case "scoring": case "format": case "gzip": case "quiet":
+            case "help":
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static String required(Map<String, String> arguments, String name) throws InvalidDataException {
+        String value = arguments.get(name);
+        if (value == null || value.trim().isEmpty()) {
+            throw new InvalidDataException("--" + name + " is required");
+        }
+        return value.trim();
+    }
+
+    private static TeamExporter.Format parseFormat(String format, String output) throws InvalidDataException {
+        if (format == null) {
+            return output.endsWith(".jsonl") || output.endsWith(".jsonl.gz")
+                    ? TeamExporter.Format.JSON_LINES
+                    : TeamExporter.Format.CSV;
+        }
+        switch (format.trim().toLowerCase()) {
+            case "csv": return TeamExporter.Format.CSV;
+            case "jsonl": return TeamExporter.Format.JSON_LINES;
+            default: throw new InvalidDataException("--format must be csv or jsonl");
+        }
+    }
+
+    private static int parsePositiveInt(String value, String name) throws InvalidDataException {
+        try {
+            int parsed = Integer.parseInt(value.trim());
+            if (parsed <= 0) {
+                throw new InvalidDataException("--" + name + " must be positive");
+            }
+            return parsed;
+        } catch (NumberFormatException e) {
+            throw new InvalidDataException("--" + name + " must be a whole number", e);
+        }
+    }
+
+    private static long parseLong(String value, String name) throws InvalidDataException {
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            throw new InvalidDataException("--" + name + " must be a whole number", e);
+        }
+    }
+
+    private static double parseDouble(String value, String name) throws InvalidDataException {
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            throw new InvalidDataException("--" + name + " must be a number", e);
+        }
+    }
+}
@@ -0,0 +1,607 @@
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Exact solver for small pools (finals brackets): depth-first branch-and-bound over the
+// assignment of participants to teams, maximising the total balance score.
+//
+// - Teams are interchangeable, so a participant only ever opens the first empty team, and
+//   participants with the same game, role and personality are assigned in non-decreasing
+//   team order. Together these visit each distinct formation once.
+// - A node is cut off when an optimistic bound on the final score, worked out from each
+//   team's counters and what is left in the pool (leaders, thinkers, roles and players per
+//   game), cannot beat the incumbent.
+// - The incumbent starts as the heuristic strategy's formation. The tree is split into
+//   subtrees that workers search in parallel, sharing that incumbent.
+// Teams get the same sizes as the other strategies (differing by at most one). Pools larger
+// than maxParticipants go straight to the heuristic, and when the node limit or time budget
+// runs out the best formation found so far (at worst the heuristic's) is returned. The bound
+// assumes a team needs at most one leader and one thinker; scoring rules asking for more also
+// go to the heuristic.
+public class BranchAndBoundTeamStrategy implements TeamFormationStrategy {
+    private static final int MAX_EXACT_PARTICIPANTS = 64;
+    private static final long NODE_LIMIT = 50_000_000L;
+    private static final int SUBTREES_PER_WORKER = 8;
+    private static final int CHECK_INTERVAL_MASK = 1023;  // Limits and interrupt check every 1024 nodes
+    private static final double TARGET_EPSILON = 1e-9;
+    private static final int ROLE_COUNT = Role.values().length;
+    private static final int LEADER = PersonalityType.LEADER.ordinal();
+    private static final int THINKER = PersonalityType.THINKER.ordinal();
+
+    private final TeamFormationStrategy heuristic;
+    private final int maxParticipants;
+    private final long nodeLimit;
+    private final int workerCount;
+
+    public BranchAndBoundTeamStrategy() {
+        this(new BalancedTeamStrategy(), MAX_EXACT_PARTICIPANTS, NODE_LIMIT,
+                AppExecutors.compute().getParallelism());
+    }
+
+    public BranchAndBoundTeamStrategy(TeamFormationStrategy heuristic, int maxParticipants,
+                                      long nodeLimit, int workerCount) {
+        if (maxParticipants < 1 || nodeLimit < 1 || workerCount < 1) {
+            throw new IllegalArgumentException("Participant, node and worker limits must be positive");
+        }
+        this.heuristic = heuristic;
+        this.maxParticipants = maxParticipants;
+        this.nodeLimit = nodeLimit;
+        this.workerCount = workerCount;
+    }
+
+    @Override
+    public List<Team> formTeams(List<Participant> participants, int teamSize) {
+        return formTeams(participants, teamSize, FormationOptions.defaults());
+    }
+
+    @Override
+    public List<Team> formTeams(List<Participant> participants, int teamSize, FormationOptions options) {
+        return solve(participants, teamSize, options, false);
+    }
+
+    @Override
+    public List<Team> formTeamsParallel(List<Participant> participants, int teamSize) {
+        return formTeamsParallel(participants, teamSize, FormationOptions.defaults());
+    }
+
+    // Same result as formTeams whenever the search completes: ties between equally good
+    // formations go to the earliest subtree, whichever worker finds them first
+    @Override
+    public List<Team> formTeamsParallel(List<Participant> participants, int teamSize, FormationOptions options) {
+        return solve(participants, teamSize, options, true);
+    }
+
+    private List<Team> solve(List<Participant> participants, int teamSize, FormationOptions options,
+                             boolean parallel) {
+        if (participants.isEmpty()) {
+            return new ArrayList<>();
+        }
+        BalanceEvaluator evaluator = options.getEvaluator();
+        String unsupported = participants.size() > maxParticipants
+                ? "Too many participants for an exact search (" + participants.size() + " > " + maxParticipants + ")"
+                : evaluator.getMinLeaders() > 1 || evaluator.getMinThinkers() > 1
+                ? "The exact search supports at most one required leader and thinker per team"
+                : null;
+        if (unsupported != null) {
+            System.out.println(unsupported + ", using " + heuristic.getStrategyName());
+            return parallel
+                    ? heuristic.formTeamsParallel(participants, teamSize, options)
+                    : heuristic.formTeams(participants, teamSize, options);
+        }
+
+        long startTime = System.nanoTime();
+        ParticipantTable table = ParticipantTable.of(participants);
+        // The heuristic only seeds the incumbent, so it gets its attempt cap, not the budget
+        List<Team> heuristicTeams = heuristic.formTeams(participants, teamSize,
+                options.withoutTimeBudget().withProgressListener(FormationProgressListener.NONE));
+
+        Search search = new Search(table, teamSize, evaluator, options.deadlineFrom(startTime),
+                options.targetScoreOr(evaluator.getMaxScore()));
+        search.offerHeuristic(heuristicTeams);
+
+        List<int[]> subtrees = search.split(parallel ? workerCount * SUBTREES_PER_WORKER : 1);
+        FormationProgressListener progress = options.getProgressListener();
+        AtomicInteger subtreesDone = new AtomicInteger();
+        List<Callable<Void>> tasks = new ArrayList<>(subtrees.size());
+        for (int s = 0; s < subtrees.size(); s++) {
+            int subtree = s;
+            tasks.add(() -> {
+                search.explore(subtree, subtrees.get(subtree));
+                progress.onProgress(subtreesDone.incrementAndGet(), subtrees.size(),
+                        search.incumbent.get().getAverageScore(search.teamCount));
+                return null;
+            });
+        }
+        try {
+            if (parallel && tasks.size() > 1) {
+                AppExecutors.invokeAll(tasks);
+            } else {
+                for (Callable<Void> task : tasks) {
+                    task.call();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Exact team formation failed", e.getCause());
+        } catch (Exception e) {
+            throw new RuntimeException("Exact team formation failed", e);
+        }
+
+        TeamMateMetrics metrics = TeamMateMetrics.getInstance();
+        metrics.recordAttempts(search.nodes.get());
+        metrics.recordSearchTime(System.nanoTime() - startTime);
+
+        Incumbent best = search.incumbent.get();
+        if (best.points >= search.targetPoints) {
+            System.out.printf("Exact search reached the target score after %,d nodes%n", search.nodes.get());
+        } else if (search.stopped.get()) {
+            System.out.printf("Exact search stopped at its node or time limit after %,d nodes; "
+                    + "returning the best formation found%n", search.nodes.get());
+        } else {
+            System.out.printf("Exact search proved the best formation after %,d nodes%n", search.nodes.get());
+        }
+        return best.assignment == null ? heuristicTeams : search.toTeams(best.assignment);
+    }
+
+    // Shared, immutable best-so-far. assignment is indexed by branching position and is null
+    // while the heuristic's formation is still the best; the heuristic ranks as subtree -1.
+    private static final class Incumbent {
+        final double points;  // Total balance score over all teams
+        final int subtree;
+        final int[] assignment;
+
+        Incumbent(double points, int subtree, int[] assignment) {
+            this.points = points;
+            this.subtree = subtree;
+            this.assignment = assignment;
+        }
+
+        double getAverageScore(int teamCount) {
+            return points / teamCount;
+        }
+    }
+
+    private final class Search {
+        private final ParticipantTable table;
+        private final int participantCount;
+        private final int teamCount;
+        private final int baseSize;  // Every team gets baseSize or baseSize + 1 members
+        private final int largeTeams;  // ...and exactly this many get baseSize + 1
+        private final int[] order;  // Branching order: participant indexes grouped by class
+        private final boolean[] sameClassAsPrevious;
+        private final BalanceEvaluator evaluator;
+        private final int maxPerGame;
+        private final int roleTarget;
+        private final int minLeaders;  // 0 or 1
+        private final int minThinkers;  // 0 or 1
+        private final int maxThinkers;
+        // What each rule is worth: every team gets at least personalityPartial, a good mix
+        // adds mixBonus on top
+        private final double gameWeight;
+        private final double roleWeight;
+        private final double personalityPartial;
+        private final double mixBonus;
+        private final long deadline;
+        private final double targetPoints;
+        private final AtomicReference<Incumbent> incumbent = new AtomicReference<>();
+        private final AtomicLong nodes = new AtomicLong();
+        private final AtomicBoolean stopped = new AtomicBoolean();
+
+        Search(ParticipantTable table, int teamSize, BalanceEvaluator evaluator, long deadline, double targetScore) {
+            this.table = table;
+            this.evaluator = evaluator;
+            ScoringConfig config = evaluator.getConfig();
+            this.maxPerGame = evaluator.getMaxPerGame();
+            this.roleTarget = evaluator.getRoleDiversityTarget();
+            this.minLeaders = evaluator.getMinLeaders();
+            this.minThinkers = evaluator.getMinThinkers();
+            this.maxThinkers = evaluator.getMaxThinkers();
+            this.gameWeight = config.getGameVarietyWeight();
+            this.roleWeight = config.getRoleDiversityWeight();
+            this.personalityPartial = config.getPersonalityPartialWeight();
+            this.mixBonus = config.getPersonalityMixWeight() - config.getPersonalityPartialWeight();
+            this.participantCount = table.size();
+            this.teamCount = table.teamCountFor(teamSize);
+            this.baseSize = participantCount / teamCount;
+            this.largeTeams = participantCount % teamCount;
+            this.deadline = deadline;
+            this.targetPoints = targetScore * teamCount - TARGET_EPSILON;
+
+            // Leaders, then thinkers, then the rest: the personality bound tightens early.
+            // Identical participants end up next to each other.
+            Integer[] sorted = new Integer[participantCount];
+            for (int i = 0; i < participantCount; i++) {
+                sorted[i] = i;
+            }
+            Arrays.sort(sorted, Comparator.comparingInt((Integer i) -> personalityRank(table.personality(i)))
+                    .thenComparingInt(table::gameId)
+                    .thenComparingInt(table::role)
+                    .thenComparingInt(i -> i));
+            this.order = new int[participantCount];
+            this.sameClassAsPrevious = new boolean[participantCount];
+            for (int d = 0; d < participantCount; d++) {
+                order[d] = sorted[d];
+                if (d > 0) {
+                    int a = order[d - 1];
+                    int b = order[d];
+                    sameClassAsPrevious[d] = table.personality(a) == table.personality(b)
+                            && table.gameId(a) == table.gameId(b)
+                            && table.role(a) == table.role(b);
+                }
+            }
+        }
+
+        private int personalityRank(int personality) {
+            return personality == LEADER ? 0 : personality == THINKER ? 1 : 2;
+        }
+
+        void offerHeuristic(List<Team> teams) {
+            double points = 0;
+            for (Team team : teams) {
+                points += team.getBalanceScore();
+            }
+            incumbent.set(new Incumbent(points, -1, null));
+            if (points >= targetPoints) {
+                stopped.set(true);
+            }
+        }
+
+        // Prefixes of the branching order whose subtrees together cover the whole tree, in
+        // depth-first order, splitting one level deeper until there are enough of them
+        List<int[]> split(int wanted) {
+            List<int[]> prefixes = new ArrayList<>();
+            prefixes.add(new int[0]);
+            Solver solver = new Solver(Integer.MAX_VALUE);
+            int depth = 0;
+            while (prefixes.size() < wanted && depth < participantCount) {
+                List<int[]> deeper = new ArrayList<>();
+                for (int[] prefix : prefixes) {
+                    solver.replay(prefix);
+                    for (int t = solver.firstTeamFor(depth); t < solver.teamLimit(); t++) {
+                        if (solver.hasRoom(t)) {
+                            int[] child = Arrays.copyOf(prefix, depth + 1);
+                            child[depth] = t;
+                            deeper.add(child);
+                        }
+                    }
+                    solver.reset();
+                }
+                prefixes = deeper;
+                depth++;
+            }
+            return prefixes;
+        }
+
+        void explore(int subtree, int[] prefix) {
+            if (stopped.get()) {
+                return;
+            }
+            Solver solver = new Solver(subtree);
+            solver.replay(prefix);
+            try {
+                solver.dfs(prefix.length);
+            } finally {
+                nodes.addAndGet(solver.localNodes);
+            }
+        }
+
+        // Lower subtree indexes win ties, so the outcome does not depend on thread timing
+        private boolean beats(double points, int subtree, Incumbent best) {
+            return points > best.points || (points == best.points && subtree < best.subtree);
+        }
+
+        void offer(double points, int subtree, int[] assignment) {
+            Incumbent candidate = new Incumbent(points, subtree, assignment.clone());
+            Incumbent best = incumbent.get();
+            while (beats(points, subtree, best)) {
+                if (incumbent.compareAndSet(best, candidate)) {
+                    if (points >= targetPoints) {
+                        stopped.set(true);
+                    }
+                    return;
+                }
+                best = incumbent.get();
+            }
+        }
+
+        List<Team> toTeams(int[] assignment) {
+            TeamComposition[] teams = new TeamComposition[teamCount];
+            for (int t = 0; t < teamCount; t++) {
+                teams[t] = new TeamComposition(table, baseSize + 1, evaluator);
+            }
+            for (int d = 0; d < participantCount; d++) {
+                teams[assignment[d]].add(order[d]);
+            }
+            return table.toTeams(teams);
+        }
+
+        // One worker's search state: the partial assignment and per-team running counters
+        private final class Solver {
+            private final int subtree;
+            private final int gameCount = table.gameCount();
+            private final int[] assignment = new int[participantCount];
+            private final int[] sizes = new int[teamCount];
+            private final int[] gameCounts = new int[teamCount * gameCount];
+            private final int[] gamesOverCap = new int[teamCount];
+            private final int[] roleCounts = new int[teamCount * ROLE_COUNT];
+            private final int[] distinctRoles = new int[teamCount];
+            private final int[] leaders = new int[teamCount];
+            private final int[] thinkers = new int[teamCount];
+            private final int[] gamesLeft = new int[gameCount];
+            private final int[] rolesLeft = new int[ROLE_COUNT];
+            private int leadersLeft;
+            private int thinkersLeft;
+            private int openTeams;
+            private int fullLargeTeams;
+            private long localNodes;
+
+            Solver(int subtree) {
+                this.subtree = subtree;
+                reset();
+            }
+
+            void reset() {
+                Arrays.fill(sizes, 0);
+                Arrays.fill(gameCounts, 0);
+                Arrays.fill(gamesOverCap, 0);
+                Arrays.fill(roleCounts, 0);
+                Arrays.fill(distinctRoles, 0);
+                Arrays.fill(leaders, 0);
+                Arrays.fill(thinkers, 0);
+                Arrays.fill(gamesLeft, 0);
+                Arrays.fill(rolesLeft, 0);
+                leadersLeft = 0;
+                thinkersLeft = 0;
+                for (int i = 0; i < participantCount; i++) {
+                    gamesLeft[table.gameId(i)]++;
+                    rolesLeft[table.role(i)]++;
+                    if (table.personality(i) == LEADER) {
+                        leadersLeft++;
+                    } else if (table.personality(i) == THINKER) {
+                        thinkersLeft++;
+                    }
+                }
+                openTeams = 0;
+                fullLargeTeams = 0;
+            }
+
+            void replay(int[] prefix) {
+                for (int d = 0; d < prefix.length; d++) {
+                    place(d, prefix[d]);
+                }
+            }
+
+            // Identical participants take teams in non-decreasing order
+            int firstTeamFor(int depth) {
+                return sameClassAsPrevious[depth] ? assignment[depth - 1] : 0;
+            }
+
+            // Existing teams plus the first empty one
+            int teamLimit() {
+                return Math.min(openTeams + 1, teamCount);
+            }
+
+            boolean hasRoom(int t) {
+                return sizes[t] < baseSize || (sizes[t] == baseSize && fullLargeTeams < largeTeams);
+            }
+
+            void dfs(int depth) {
+                if ((++localNodes & CHECK_INTERVAL_MASK) == 0 && checkLimits()) {
+                    return;
+                }
+                if (stopped.get()) {
+                    return;
+                }
+
+                double bound = bound();
+                Incumbent best = incumbent.get();
+                if (!beats(bound, subtree, best)) {
+                    return;
+                }
+                if (depth == participantCount) {
+                    offer(bound, subtree, assignment);  // At a leaf the bound is the exact score
+                    return;
+                }
+
+                for (int t = firstTeamFor(depth), limit = teamLimit(); t < limit; t++) {
+                    if (hasRoom(t)) {
+                        place(depth, t);
+                        dfs(depth + 1);
+                        unplace(depth, t);
+                        if (stopped.get()) {
+                            return;
+                        }
+                    }
+                }
+            }
+
+            private boolean checkLimits() {
+                if (nodes.addAndGet(localNodes) > nodeLimit || FormationOptions.isPast(deadline)
+                        || Thread.currentThread().isInterrupted()) {
+                    stopped.set(true);
+                }
+                localNodes = 0;
+                return stopped.get();
+            }
+
+            private void place(int depth, int t) {
+                int index = order[depth];
+                assignment[depth] = t;
+                if (sizes[t]++ == 0) {
+                    openTeams++;
+                }
+                if (sizes[t] == baseSize + 1) {
+                    fullLargeTeams++;
+                }
+                int game = table.gameId(index);
+                if (++gameCounts[t * gameCount + game] == maxPerGame + 1) {
+                    gamesOverCap[t]++;
+                }
+                gamesLeft[game]--;
+                int role = table.role(index);
+                if (roleCounts[t * ROLE_COUNT + role]++ == 0) {
+                    distinctRoles[t]++;
+                }
+                rolesLeft[role]--;
+                int personality = table.personality(index);
+                if (personality == LEADER) {
+                    leaders[t]++;
+                    leadersLeft--;
+                } else if (personality == THINKER) {
+                    thinkers[t]++;
+                    thinkersLeft--;
+                }
+            }
+
+            private void unplace(int depth, int t) {
+                int index = order[depth];
+                if (sizes[t] == baseSize + 1) {
+                    fullLargeTeams--;
+                }
+                if (--sizes[t] == 0) {
+                    openTeams--;
+                }
+                int game = table.gameId(index);
+                if (gameCounts[t * gameCount + game]-- == maxPerGame + 1) {
+                    gamesOverCap[t]--;
+                }
+                gamesLeft[game]++;
+                int role = table.role(index);
+                if (--roleCounts[t * ROLE_COUNT + role] == 0) {
+                    distinctRoles[t]--;
+                }
+                rolesLeft[role]++;
+                int personality = table.personality(index);
+                if (personality == LEADER) {
+                    leaders[t]--;
+                    leadersLeft++;
+                } else if (personality == THINKER) {
+                    thinkers[t]--;
+                    thinkersLeft++;
+                }
+            }
+
+            // Upper bound on the total score of any completion of this node, from upper bounds
+            // on how many teams can meet each rule. Each team is counted as if it got the best
+            // possible remaining members, then the pool caps how many teams can actually be
+            // helped: each team still missing a leader or thinker needs its own, and players
+            // beyond what the clean teams can take (per game, thinkers) must go to teams that
+            // then lose those points.
+            double bound() {
+                int roleGood = 0;
+                int gameClean = 0;
+                int brokenSlots = 0;
+                int maxSlots = 0;
+                int mixPossible = 0;
+                int thinkerAllowance = 0;
+                int thinkerBrokenSlots = 0;
+                int thinkerMaxSlots = 0;
+                int mixGood = 0;
+                int needLeader = 0;
+                int needThinker = 0;
+                int needBoth = 0;
+
+                for (int t = 0; t < teamCount; t++) {
+                    int size = sizes[t];
+                    int slots = slots(t);
+
+                    if (gamesOverCap[t] == 0) {
+                        gameClean++;
+                        maxSlots = Math.max(maxSlots, slots);
+                    } else {
+                        brokenSlots += slots;
+                    }
+
+                    int missingRoles = Math.min(roleTarget, Math.max(size, baseSize)) - distinctRoles[t];
+                    if (missingRoles <= 0 || (missingRoles <= slots && availableNewRoles(t, missingRoles))) {
+                        roleGood++;
+                    }
+
+                    if (thinkers[t] > maxThinkers) {
+                        thinkerBrokenSlots += slots;
+                    } else {
+                        mixPossible++;
+                        thinkerAllowance += Math.min(maxThinkers - thinkers[t], slots);
+                        thinkerMaxSlots = Math.max(thinkerMaxSlots, slots);
+                        boolean wantsLeader = leaders[t] < minLeaders;
+                        boolean wantsThinker = thinkers[t] < minThinkers;
+                        if (!wantsLeader && !wantsThinker) {
+                            mixGood++;
+                        } else if (wantsLeader && wantsThinker) {
+                            if (slots >= 2) {
+                                needBoth++;
+                            }
+                        } else if (slots >= 1) {
+                            if (wantsLeader) {
+                                needLeader++;
+                            } else {
+                                needThinker++;
+                            }
+                        }
+                    }
+                }
+
+                int leaderOnly = Math.min(needLeader, leadersLeft);
+                int thinkerOnly = Math.min(needThinker, thinkersLeft);
+                mixGood += leaderOnly + thinkerOnly
+                        + Math.min(needBoth, Math.min(leadersLeft - leaderOnly, thinkersLeft - thinkerOnly));
+                mixGood = Math.min(mixGood, Math.max(0, mixPossible - mustBreak(thinkersLeft - thinkerAllowance,
+                        thinkerBrokenSlots, thinkerMaxSlots)));
+
+                int overflow = 0;
+                for (int g = 0; g < gameCount; g++) {
+                    int allowance = 0;
+                    for (int t = 0; t < teamCount && allowance < gamesLeft[g]; t++) {
+                        if (gamesOverCap[t] == 0) {
+                            allowance += Math.min(maxPerGame - gameCounts[t * gameCount + g], slots(t));
+                        }
+                    }
+                    overflow += Math.max(0, gamesLeft[g] - allowance);
+                }
+                gameClean = Math.max(0, gameClean - mustBreak(overflow, brokenSlots, maxSlots));
+                return personalityPartial * teamCount + mixBonus * mixGood + roleWeight * roleGood
+                        + gameWeight * gameClean;
+            }
+
+            // Members a team can still take, given how many large teams are left
+            private int slots(int t) {
+                return (sizes[t] > baseSize || fullLargeTeams < largeTeams ? baseSize + 1 : baseSize) - sizes[t];
+            }
+
+            // Fewest clean teams that must take the overflow, given the room already-broken teams
+            // have and the most room any clean team has
+            private int mustBreak(int overflow, int brokenSlots, int maxSlots) {
+                return overflow <= brokenSlots || maxSlots == 0
+                        ? 0
+                        : (overflow - brokenSlots + maxSlots - 1) / maxSlots;
+            }
+
+            // Whether the pool still holds enough roles this team lacks
+            private boolean availableNewRoles(int t, int wanted) {
+                int available = 0;
+                for (int r = 0; r < ROLE_COUNT && available < wanted; r++) {
+                    if (roleCounts[t * ROLE_COUNT + r] == 0 && rolesLeft[r] > 0) {
+                        available++;
+                    }
+                }
+                return available >= wanted;
+            }
+        }
+    }
+
+    @Override
+    public String getStrategyName() {
+        return "Exact Branch-and-Bound Strategy";
+    }
+
+    @Override
+    public String getStrategyDescription() {
+        return "Searches every distinct formation of a small pool for the best total balance score, "
+                + "pruning with score bounds";
+    }
+}
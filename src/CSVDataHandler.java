@@ -1,34 +1,66 @@
 import java.io.*;
+import java.nio.*;
+import java.nio.channels.FileChannel;
+import java.nio.charset.*;
 import java.nio.file.*;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.stream.*;
 
 public class CSVDataHandler {
     private static final String[] EXPECTED_HEADERS = {
             "ID", "Name", "Email", "PreferredGame", "SkillLevel",
             "PreferredRole", "PersonalityScore", "PersonalityType"
     };
+    private static final long MIN_CHUNK_BYTES = 1L << 20;
+    private static final long MAX_CHUNK_BYTES = 16L << 20;
+    private static final int SCAN_BUFFER_BYTES = 8192;
+    private static final String SNAPSHOT_SUFFIX = ".snapshot";
 
-    private final ExecutorService fileExecutor;
+    private static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 200;
+
+    private final ParticipantAppendWriter.FlushPolicy flushPolicy;
+    private final long flushIntervalMillis;
+    private final Map<Path, ParticipantAppendWriter> appendWriters = new ConcurrentHashMap<>();
+    private final TeamMateMetrics metrics = TeamMateMetrics.getInstance();
+    private volatile Path snapshotDirectory;  // Null: snapshots are off
 
     public CSVDataHandler() {
-        this.fileExecutor = Executors.newSingleThreadExecutor();
+        this(ParticipantAppendWriter.FlushPolicy.PER_BATCH, DEFAULT_FLUSH_INTERVAL_MILLIS);
+    }
+
+    public CSVDataHandler(ParticipantAppendWriter.FlushPolicy flushPolicy, long flushIntervalMillis) {
+        this.flushPolicy = flushPolicy;
+        this.flushIntervalMillis = flushIntervalMillis;
+    }
+
+    // Turns on binary snapshots of loaded CSVs, kept in this directory (created on first use)
+    // rather than next to the user's files; null turns them off again. Off by default.
+    public void setSnapshotDirectory(Path directory) {
+        this.snapshotDirectory = directory;
     }
 
-    // Modified to use CompletableFuture for async loading
+    // Runs on a virtual thread; the parsing itself fans out on the compute pool
     public CompletableFuture<List<Participant>> loadParticipantsAsync(String filePath) {
         return CompletableFuture.supplyAsync(() -> {
             try {
-                return loadParticipants(filePath);
+                return loadParticipantsCached(filePath);
             } catch (DataLoadingException e) {
                 throw new CompletionException(e);
             }
-        }, fileExecutor);
+        }, AppExecutors.io());
     }
 
     // Existing loadParticipants method remains for sync operations
     public List<Participant> loadParticipants(String filePath) throws DataLoadingException {
-        // ... existing implementation unchanged
+        ParticipantLoadReport report = loadParticipantsWithReport(filePath);
+        System.out.println(report.getSummary());
+        return report.getParticipants();
+    }
+
+    // Memory-maps the file, splits it into newline-aligned chunks and parses them in parallel.
+    // Bad rows are collected into the report instead of aborting the load.
+    public ParticipantLoadReport loadParticipantsWithReport(String filePath) throws DataLoadingException {
         if (filePath == null || filePath.trim().isEmpty()) {
             throw new DataLoadingException("File path cannot be null or empty");
         }
@@ -38,212 +70,432 @@ public class CSVDataHandler {
             throw new DataLoadingException("File does not exist: " + filePath);
         }
 
-        List<Participant> participants = new ArrayList<>();
-        int lineNumber = 0;
+        long startTime = System.nanoTime();
+        FlightRecorderEvents.CsvLoad loadEvent = new FlightRecorderEvents.CsvLoad();
+        loadEvent.begin();
 
-        try (BufferedReader reader = Files.newBufferedReader(path)) {
-            String line;
-            boolean isFirstLine = true;
-
-            while ((line = reader.readLine()) != null) {
-                lineNumber++;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            HeaderPosition header = findHeader(channel, fileSize);
+            if (header == null) {
+                throw new DataLoadingException("No valid participant data found in file");
+            }
+            validateHeader(header.line);
 
-                if (line.trim().isEmpty()) {
-                    continue;
-                }
+            long[] bounds = splitIntoChunks(channel, header.dataStart, fileSize);
+            int chunkCount = bounds.length - 1;
+            MappedByteBuffer[] chunks = new MappedByteBuffer[chunkCount];
+            for (int i = 0; i < chunkCount; i++) {
+                chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, bounds[i], bounds[i + 1] - bounds[i]);
+            }
 
-                if (isFirstLine) {
-                    validateHeader(line);
-                    isFirstLine = false;
-                    continue;
-                }
+            // Line numbers for error messages: count newlines per chunk first, then prefix-sum.
+            // Parallel streams run in the pool of the calling worker, so invoking them on the
+            // compute pool keeps parsing off the common pool.
+            ForkJoinPool compute = AppExecutors.compute();
+            int[] newlines = compute.invoke(ForkJoinTask.adapt(() -> IntStream.range(0, chunkCount).parallel()
+                    .map(i -> countNewlines(chunks[i]))
+                    .toArray()));
+            int[] firstLine = new int[chunkCount];
+            int lineNumber = header.lineNumber + 1;
+            for (int i = 0; i < chunkCount; i++) {
+                firstLine[i] = lineNumber;
+                lineNumber += newlines[i];
+            }
 
-                try {
-                    Participant participant = parseParticipantLine(line, lineNumber);
-                    participants.add(participant);
-                } catch (InvalidDataException e) {
-                    System.err.printf("Warning: Skipping line %d - %s%n", lineNumber, e.getMessage());
-                }
+            List<ChunkResult> results = compute.invoke(ForkJoinTask.adapt(() -> IntStream.range(0, chunkCount).parallel()
+                    .mapToObj(i -> parseChunk(chunks[i], firstLine[i]))
+                    .collect(Collectors.toList())));
+
+            // Merge in file order
+            List<Participant> participants = new ArrayList<>();
+            List<String> errors = new ArrayList<>();
+            long rowsRead = 0;
+            long rejected = 0;
+            for (ChunkResult result : results) {
+                participants.addAll(result.participants);
+                rowsRead += result.rowsRead;
+                rejected += result.rejected;
+                errors.addAll(result.errors);
             }
 
+            long elapsed = System.nanoTime() - startTime;
+            metrics.recordLoad(rowsRead, rejected, elapsed);
+            if (loadEvent.shouldCommit()) {
+                loadEvent.path = filePath;
+                loadEvent.bytes = fileSize;
+                loadEvent.chunks = chunkCount;
+                loadEvent.rows = rowsRead;
+                loadEvent.rejectedRows = rejected;
+                loadEvent.commit();
+            }
             if (participants.isEmpty()) {
                 throw new DataLoadingException("No valid participant data found in file");
             }
 
-            System.out.printf("Successfully loaded %d participants from %s%n",
-                    participants.size(), filePath);
+            return new ParticipantLoadReport(filePath, participants, rowsRead, rejected, errors,
+                    fileSize, elapsed);
 
         } catch (IOException e) {
             throw new DataLoadingException("Error reading file: " + e.getMessage(), e);
         }
-
-        return participants;
-    }
-
-    // Async version of appendParticipant
-    public CompletableFuture<Void> appendParticipantAsync(Participant participant, String filePath) {
-        return CompletableFuture.runAsync(() -> {
-            try {
-                appendParticipant(participant, filePath);
-            } catch (DataSavingException e) {
-                throw new CompletionException(e);
-            }
-        }, fileExecutor);
     }
 
-    public void appendParticipant(Participant participant, String filePath) throws DataSavingException {
-        if (participant == null) {
-            throw new DataSavingException("Participant cannot be null");
+    // Loads from the CSV's snapshot in the snapshot directory when it was built from the CSV
+    // as it is now (same size and modification time), otherwise parses the CSV and refreshes
+    // the snapshot for the next start. Just parses the CSV while snapshots are off.
+    public List<Participant> loadParticipantsCached(String filePath) throws DataLoadingException {
+        if (filePath == null || filePath.trim().isEmpty()) {
+            throw new DataLoadingException("File path cannot be null or empty");
+        }
+        Path directory = snapshotDirectory;
+        if (directory == null) {
+            return loadParticipants(filePath);
         }
 
-        Path path = Paths.get(filePath);
-        boolean fileExists = Files.exists(path);
+        Path csvPath = Paths.get(filePath);
+        Path snapshotPath = snapshotPathFor(directory, csvPath);
 
-        try (BufferedWriter writer = Files.newBufferedWriter(path,
-                StandardOpenOption.CREATE,
-                StandardOpenOption.APPEND)) {
+        // Taken before parsing, so a CSV that changes meanwhile leaves the snapshot stale
+        ParticipantSnapshot.Source source = null;
+        try {
+            if (Files.exists(csvPath)) {
+                source = ParticipantSnapshot.Source.of(csvPath);
+                if (Files.exists(snapshotPath)) {
+                    return loadSnapshot(snapshotPath, source);
+                }
+            }
+        } catch (IOException | DataLoadingException e) {
+            System.out.println("Warning: Ignoring participant snapshot - " + e.getMessage());
+        }
 
-            if (!fileExists || Files.size(path) == 0) {
-                writer.write("ID,Name,Email,PreferredGame,SkillLevel,PreferredRole,PersonalityScore,PersonalityType");
-                writer.newLine();
+        List<Participant> participants = loadParticipants(filePath);
+        try {
+            if (source != null) {
+                Files.createDirectories(directory);
+                ParticipantSnapshot.write(participants, snapshotPath, source);
             }
+        } catch (IOException e) {
+            System.out.println("Warning: Could not write participant snapshot - " + e.getMessage());
+        }
+        return participants;
+    }
 
-            String participantLine = String.format("%s,%s,%s,%s,%d,%s,%d,%s",
-                    participant.getId(),
-                    participant.getName(),
-                    participant.getEmail(),
-                    participant.getPreferredGame(),
-                    participant.getSkillLevel(),
-                    participant.getPreferredRole(),
-                    participant.getPersonalityScore(),
-                    participant.getPersonalityType());
+    // One snapshot per CSV location: the file name keeps it recognisable, the path hash keeps
+    // same-named files in different folders apart
+    private static Path snapshotPathFor(Path directory, Path csvPath) {
+        Path absolute = csvPath.toAbsolutePath().normalize();
+        return directory.resolve(absolute.getFileName() + "-"
+                + Integer.toHexString(absolute.toString().hashCode()) + SNAPSHOT_SUFFIX);
+    }
 
-            writer.write(participantLine);
-            writer.newLine();
+    public void saveSnapshot(List<Participant> participants, String snapshotPath) throws DataSavingException {
+        if (participants == null) {
+            throw new DataSavingException("Participants cannot be null");
+        }
+        try {
+            ParticipantSnapshot.write(participants, Paths.get(snapshotPath));
+        } catch (IOException e) {
+            throw new DataSavingException("Error writing snapshot: " + e.getMessage(), e);
+        }
+    }
 
-            System.out.printf("Successfully appended participant %s to %s%n",
-                    participant.getName(), filePath);
+    public List<Participant> loadSnapshot(String snapshotPath) throws DataLoadingException {
+        return loadSnapshot(Paths.get(snapshotPath), null);
+    }
 
+    // A null source accepts the snapshot whatever CSV it was built from
+    private List<Participant> loadSnapshot(Path path, ParticipantSnapshot.Source source) throws DataLoadingException {
+        String snapshotPath = path.toString();
+        if (!Files.exists(path)) {
+            throw new DataLoadingException("Snapshot does not exist: " + snapshotPath);
+        }
+        try {
+            List<Participant> participants = ParticipantSnapshot.read(path, source);
+            System.out.printf("Successfully loaded %d participants from snapshot %s%n",
+                    participants.size(), snapshotPath);
+            return participants;
         } catch (IOException e) {
-            throw new DataSavingException("Error appending participant to file: " + e.getMessage(), e);
+            throw new DataLoadingException("Error reading snapshot: " + e.getMessage(), e);
         }
     }
 
-    private void validateHeader(String headerLine) throws DataLoadingException {
-        String[] headers = headerLine.split(",");
+    // Returns the first non-blank line and the offset just past it, or null for a blank file
+    private HeaderPosition findHeader(FileChannel channel, long fileSize) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        ByteBuffer buffer = ByteBuffer.allocate(SCAN_BUFFER_BYTES);
+        long position = 0;
+        int lineNumber = 0;
 
-        if (headers.length != EXPECTED_HEADERS.length) {
-            throw new DataLoadingException(
-                    String.format("Invalid header format. Expected %d columns, found %d",
-                            EXPECTED_HEADERS.length, headers.length)
-            );
+        while (position < fileSize) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                byte b = buffer.get(i);
+                position++;
+                if (b != '\n') {
+                    line.write(b);
+                    continue;
+                }
+                lineNumber++;
+                String text = line.toString(StandardCharsets.UTF_8).trim();
+                line.reset();
+                if (!text.isEmpty()) {
+                    return new HeaderPosition(text, lineNumber, position);
+                }
+            }
         }
+
+        String text = line.toString(StandardCharsets.UTF_8).trim();
+        return text.isEmpty() ? null : new HeaderPosition(text, lineNumber + 1, fileSize);
     }
 
-    private Participant parseParticipantLine(String line, int lineNumber) throws InvalidDataException {
-        String[] fields = line.split(",");
+    // Chunk boundaries always fall just after a newline so no row is split between chunks
+    private long[] splitIntoChunks(FileChannel channel, long start, long end) throws IOException {
+        int parallelism = Runtime.getRuntime().availableProcessors() * 4;
+        long target = Math.max(MIN_CHUNK_BYTES, Math.min(MAX_CHUNK_BYTES, (end - start) / parallelism));
+
+        List<Long> bounds = new ArrayList<>();
+        bounds.add(start);
+        long position = start;
+        while (end - position > target) {
+            long next = findNextLineStart(channel, position + target, end);
+            if (next >= end) {
+                break;
+            }
+            bounds.add(next);
+            position = next;
+        }
+        bounds.add(end);
 
-        if (fields.length != EXPECTED_HEADERS.length) {
-            throw new InvalidDataException(
-                    String.format("Invalid number of fields. Expected %d, found %d",
-                            EXPECTED_HEADERS.length, fields.length)
-            );
+        return bounds.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private long findNextLineStart(FileChannel channel, long from, long end) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(SCAN_BUFFER_BYTES);
+        long position = from;
+        while (position < end) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
         }
+        return end;
+    }
 
+    private static int countNewlines(MappedByteBuffer chunk) {
+        int count = 0;
+        for (int i = 0, limit = chunk.limit(); i < limit; i++) {
+            if (chunk.get(i) == '\n') {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private ChunkResult parseChunk(MappedByteBuffer chunk, int firstLineNumber) {
+        FlightRecorderEvents.CsvChunk chunkEvent = new FlightRecorderEvents.CsvChunk();
+        chunkEvent.begin();
+        ChunkResult result = new ChunkResult();
+        ParticipantLineParser parser = new ParticipantLineParser();
+        CharBuffer text;
         try {
-            String id = validateAndTrim(fields[0], "ID", lineNumber);
-            String name = validateAndTrim(fields[1], "Name", lineNumber);
-            String email = validateAndTrim(fields[2], "Email", lineNumber);
-            String preferredGame = validateAndTrim(fields[3], "PreferredGame", lineNumber);
-            int skillLevel = validateSkillLevel(fields[4], lineNumber);
-            Role preferredRole = validateRole(fields[5], lineNumber);
-            int personalityScore = validatePersonalityScore(fields[6], lineNumber);
+            text = StandardCharsets.UTF_8.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE)
+                    .decode(chunk.duplicate());
+        } catch (CharacterCodingException e) {
+            throw new UncheckedIOException(e);  // Unreachable with REPLACE actions
+        }
 
-            return new Participant(id, name, email, preferredGame, skillLevel,
-                    preferredRole, personalityScore);
+        char[] chars = text.array();
+        int length = text.limit();
+        int lineNumber = firstLineNumber;
+        int lineStart = 0;
 
-        } catch (NumberFormatException e) {
-            throw new InvalidDataException("Invalid numeric format: " + e.getMessage());
-        } catch (IllegalArgumentException e) {
-            throw new InvalidDataException("Data validation failed: " + e.getMessage());
+        for (int i = 0; i <= length; i++) {
+            if (i < length && chars[i] != '\n') {
+                continue;
+            }
+            if (i == length && lineStart == length) {
+                break;
+            }
+
+            int lineEnd = i;
+            if (lineEnd > lineStart && chars[lineEnd - 1] == '\r') {
+                lineEnd--;
+            }
+            if (!ParticipantLineParser.isBlank(chars, lineStart, lineEnd)) {
+                result.rowsRead++;
+                try {
+                    result.participants.add(parser.parse(chars, lineStart, lineEnd, lineNumber));
+                } catch (InvalidDataException e) {
+                    result.rejected++;
+                    ParticipantLoadReport.recordError(result.errors, lineNumber, e.getMessage());
+                }
+            }
+
+            lineNumber++;
+            lineStart = i + 1;
         }
+
+        if (chunkEvent.shouldCommit()) {
+            chunkEvent.firstLine = firstLineNumber;
+            chunkEvent.bytes = chunk.capacity();
+            chunkEvent.rows = result.rowsRead;
+            chunkEvent.rejectedRows = result.rejected;
+            chunkEvent.commit();
+        }
+        return result;
     }
 
-    private String validateAndTrim(String value, String fieldName, int lineNumber) throws InvalidDataException {
-        if (value == null || value.trim().isEmpty()) {
-            throw new InvalidDataException(
-                    String.format("Field '%s' cannot be empty at line %d", fieldName, lineNumber)
-            );
+    private static class HeaderPosition {
+        final String line;
+        final int lineNumber;
+        final long dataStart;
+
+        HeaderPosition(String line, int lineNumber, long dataStart) {
+            this.line = line;
+            this.lineNumber = lineNumber;
+            this.dataStart = dataStart;
         }
-        return value.trim();
     }
 
-    private int validateSkillLevel(String skillStr, int lineNumber) throws InvalidDataException {
+    private static class ChunkResult {
+        final List<Participant> participants = new ArrayList<>();
+        final List<String> errors = new ArrayList<>();
+        long rowsRead;
+        long rejected;
+    }
+
+    // Queues the participant on the file's long-lived append writer. The future completes
+    // once the record is durable under the handler's flush policy.
+    public CompletableFuture<Void> appendParticipantAsync(Participant participant, String filePath) {
+        if (participant == null) {
+            return CompletableFuture.failedFuture(new DataSavingException("Participant cannot be null"));
+        }
+
+        ParticipantAppendWriter writer;
         try {
-            int skill = Integer.parseInt(skillStr.trim());
-            if (skill < 1 || skill > 10) {
-                throw new InvalidDataException(
-                        String.format("Skill level must be between 1-10 at line %d", lineNumber)
-                );
-            }
-            return skill;
-        } catch (NumberFormatException e) {
-            throw new InvalidDataException(
-                    String.format("Invalid skill level format at line %d: %s", lineNumber, skillStr)
-            );
+            writer = appendWriterFor(filePath);
+        } catch (DataSavingException e) {
+            return CompletableFuture.failedFuture(e);
         }
+        return writer.append(participant);
     }
 
-    private Role validateRole(String roleStr, int lineNumber) throws InvalidDataException {
+    public void appendParticipant(Participant participant, String filePath) throws DataSavingException {
         try {
-            return Role.fromString(roleStr);
-        } catch (IllegalArgumentException e) {
-            throw new InvalidDataException(
-                    String.format("Invalid role '%s' at line %d", roleStr, lineNumber)
-            );
+            appendParticipantAsync(participant, filePath).join();
+            System.out.printf("Successfully appended participant %s to %s%n",
+                    participant.getName(), filePath);
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof DataSavingException) {
+                throw (DataSavingException) e.getCause();
+            }
+            throw new DataSavingException("Error appending participant to file: " + e.getCause().getMessage(), e.getCause());
         }
     }
 
-    private int validatePersonalityScore(String scoreStr, int lineNumber) throws InvalidDataException {
+    private ParticipantAppendWriter appendWriterFor(String filePath) throws DataSavingException {
+        if (filePath == null || filePath.trim().isEmpty()) {
+            throw new DataSavingException("File path cannot be null or empty");
+        }
+        Path path = Paths.get(filePath).toAbsolutePath().normalize();
         try {
-            int score = Integer.parseInt(scoreStr.trim());
-            if (score < 0 || score > 100) {
-                throw new InvalidDataException(
-                        String.format("Personality score must be between 0-100 at line %d", lineNumber)
-                );
-            }
-            return score;
-        } catch (NumberFormatException e) {
-            throw new InvalidDataException(
-                    String.format("Invalid personality score format at line %d: %s", lineNumber, scoreStr)
+            return appendWriters.computeIfAbsent(path, key -> {
+                try {
+                    ParticipantAppendWriter writer = new ParticipantAppendWriter(key, flushPolicy, flushIntervalMillis);
+                    metrics.registerQueue(appendQueueName(key), writer::getQueuedAppends);
+                    return writer;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw new DataSavingException("Error opening file for append: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    private void validateHeader(String headerLine) throws DataLoadingException {
+        String[] headers = headerLine.split(",");
+
+        if (headers.length != EXPECTED_HEADERS.length) {
+            throw new DataLoadingException(
+                    String.format("Invalid header format. Expected %d columns, found %d",
+                            EXPECTED_HEADERS.length, headers.length)
             );
         }
     }
 
+    // Convenience wrapper for single lines; bulk loading keeps one parser per chunk instead
+    Participant parseParticipantLine(String line, int lineNumber) throws InvalidDataException {
+        return new ParticipantLineParser().parse(line, lineNumber);
+    }
+
     public void saveTeams(List<Team> teams, String filePath) throws DataSavingException {
+        exportTeams(teams, filePath, TeamExporter.Format.CSV, false);
+    }
+
+    public void exportTeams(List<Team> teams, String filePath, TeamExporter.Format format, boolean gzip)
+            throws DataSavingException {
         if (teams == null || teams.isEmpty()) {
             throw new DataSavingException("No teams to save");
         }
 
-        Path path = Paths.get(filePath);
-
-        try (BufferedWriter writer = Files.newBufferedWriter(path)) {
-            writer.write("TeamID,MemberCount,AverageSkill,BalanceScore,Members");
-            writer.newLine();
-
-            for (Team team : teams) {
-                writer.write(team.toCSVFormat());
-                writer.newLine();
+        FlightRecorderEvents.TeamExport exportEvent = new FlightRecorderEvents.TeamExport();
+        exportEvent.begin();
+        try {
+            Path path = Paths.get(filePath);
+            new TeamExporter(format, gzip).export(teams, path);
+            long bytes = Files.size(path);
+            metrics.recordExport(bytes);
+            if (exportEvent.shouldCommit()) {
+                exportEvent.path = filePath;
+                exportEvent.format = format.name();
+                exportEvent.gzip = gzip;
+                exportEvent.teams = teams.size();
+                exportEvent.bytes = bytes;
+                exportEvent.commit();
             }
-
             System.out.printf("Successfully saved %d teams to %s%n", teams.size(), filePath);
-
         } catch (IOException e) {
             throw new DataSavingException("Error writing to file: " + e.getMessage(), e);
         }
     }
 
+    // Async version of exportTeams, run on a virtual thread
+    public CompletableFuture<Void> exportTeamsAsync(List<Team> teams, String filePath,
+                                                    TeamExporter.Format format, boolean gzip) {
+        return CompletableFuture.runAsync(() -> {
+            try {
+                exportTeams(teams, filePath, format, gzip);
+            } catch (DataSavingException e) {
+                throw new CompletionException(e);
+            }
+        }, AppExecutors.io());
+    }
+
     public void shutdown() {
-        fileExecutor.shutdown();
+        // Flushes and syncs any queued appends before the files are released
+        appendWriters.forEach((path, writer) -> {
+            writer.close();
+            metrics.unregisterQueue(appendQueueName(path));
+        });
+        appendWriters.clear();
+    }
+
+    private static String appendQueueName(Path path) {
+        return "append:" + path;
     }
 }
\ No newline at end of file
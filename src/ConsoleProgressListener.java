@@ -0,0 +1,37 @@
+import java.io.PrintStream;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Prints formation progress at most once per interval, however often strategies report it
+public class ConsoleProgressListener implements FormationProgressListener {
+    private static final long DEFAULT_INTERVAL_MILLIS = 250;
+
+    private final PrintStream out;
+    private final long intervalNanos;
+    private final AtomicLong nextPrint;
+
+    public ConsoleProgressListener(PrintStream out) {
+        this(out, DEFAULT_INTERVAL_MILLIS);
+    }
+
+    public ConsoleProgressListener(PrintStream out, long intervalMillis) {
+        this.out = out;
+        this.intervalNanos = intervalMillis * 1_000_000L;
+        this.nextPrint = new AtomicLong(System.nanoTime() + intervalNanos);
+    }
+
+    @Override
+    public void onProgress(long completed, long total, double bestScore) {
+        long now = System.nanoTime();
+        long due = nextPrint.get();
+        // Only the thread that wins the CAS prints, so concurrent workers do not interleave
+        if (now - due < 0 || !nextPrint.compareAndSet(due, now + intervalNanos)) {
+            return;
+        }
+        if (total < 0) {
+            out.printf("Progress: %d done, best balance score %.2f%n", completed, bestScore);
+        } else {
+            out.printf("Progress: %d/%d (%.0f%%), best balance score %.2f%n",
+                    completed, total, completed * 100.0 / Math.max(1, total), bestScore);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+import jdk.jfr.*;
+
+// Custom Java Flight Recorder events. They cost next to nothing unless a recording has them
+// enabled, and the recording adds the thread, stack trace and timing of each one.
+// Example: java -XX:StartFlightRecording=filename=teammate.jfr TeamMateApplication
+public class FlightRecorderEvents {
+    private static final String CATEGORY = "TeamMate";
+
+    private FlightRecorderEvents() {
+    }
+
+    @Name("teammate.StrategyRun")
+    @Label("Strategy Run")
+    @Category({CATEGORY, "Formation"})
+    @Description("One formTeams or formTeamsParallel call of a strategy")
+    static class StrategyRun extends Event {
+        @Label("Strategy")
+        String strategy;
+
+        @Label("Participants")
+        int participants;
+
+        @Label("Team Size")
+        int teamSize;
+
+        @Label("Workers")
+        int workers;
+
+        @Label("Seed")
+        long seed;
+
+        @Label("Attempts")
+        int attempts;
+
+        @Label("Best Score")
+        double bestScore;
+    }
+
+    @Name("teammate.AttemptBatch")
+    @Label("Attempt Batch")
+    @Category({CATEGORY, "Formation"})
+    @Description("A batch of consecutive formation attempts evaluated by one thread")
+    static class AttemptBatch extends Event {
+        @Label("First Attempt")
+        int firstAttempt;
+
+        @Label("Attempts")
+        int attempts;
+
+        @Label("Participants")
+        int participants;
+
+        @Label("Team Size")
+        int teamSize;
+
+        @Label("Best Score")
+        double bestScore;
+    }
+
+    @Name("teammate.CsvLoad")
+    @Label("CSV Load")
+    @Category({CATEGORY, "I/O"})
+    static class CsvLoad extends Event {
+        @Label("Path")
+        String path;
+
+        @Label("Size")
+        @DataAmount
+        long bytes;
+
+        @Label("Chunks")
+        int chunks;
+
+        @Label("Rows")
+        long rows;
+
+        @Label("Rejected Rows")
+        long rejectedRows;
+    }
+
+    @Name("teammate.CsvChunk")
+    @Label("CSV Chunk Parse")
+    @Category({CATEGORY, "I/O"})
+    static class CsvChunk extends Event {
+        @Label("First Line")
+        int firstLine;
+
+        @Label("Size")
+        @DataAmount
+        long bytes;
+
+        @Label("Rows")
+        long rows;
+
+        @Label("Rejected Rows")
+        long rejectedRows;
+    }
+
+    @Name("teammate.TeamExport")
+    @Label("Team Export")
+    @Category({CATEGORY, "I/O"})
+    static class TeamExport extends Event {
+        @Label("Path")
+        String path;
+
+        @Label("Format")
+        String format;
+
+        @Label("Gzip")
+        boolean gzip;
+
+        @Label("Teams")
+        int teams;
+
+        @Label("Size")
+        @DataAmount
+        long bytes;
+    }
+}
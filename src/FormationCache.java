@@ -0,0 +1,169 @@
+import java.util.*;
+
+// Bounded LRU cache of formation results. The key holds an order-independent fingerprint
+// of the participant pool (IDs and every scored attribute), so the same pool in any order
+// hits, and any change to the pool misses. Superseded entries simply age out. Entries store
+// team membership by participant ID, and every hit builds fresh Team objects, so callers
+// may modify the teams they get back. Thread-safe.
+public class FormationCache {
+    static final int DEFAULT_CAPACITY = 16;
+
+    private static final long FNV_OFFSET = 0xCBF29CE484222325L;
+    private static final long FNV_PRIME = 0x100000001B3L;
+
+    private final int capacity;
+    private final LinkedHashMap<Key, String[][]> entries;
+    private final Map<Key, String[]> teamIds = new HashMap<>();
+
+    public FormationCache(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Cache capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, String[][]> eldest) {
+                if (size() > FormationCache.this.capacity) {
+                    teamIds.remove(eldest.getKey());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    // Rebuilds the cached teams from the given participants, or returns null on a miss
+    public synchronized List<Team> get(Key key, List<Participant> participants) {
+        String[][] members = entries.get(key);
+        if (members == null) {
+            return null;
+        }
+
+        // IDs may repeat in a pool, so hand out matching participants in turn
+        Map<String, Deque<Participant>> byId = new HashMap<>();
+        for (Participant participant : participants) {
+            byId.computeIfAbsent(participant.getId(), id -> new ArrayDeque<>()).add(participant);
+        }
+
+        String[] ids = teamIds.get(key);
+        List<Team> teams = new ArrayList<>(members.length);
+        for (int t = 0; t < members.length; t++) {
+            Team team = new Team(ids[t], key.options.getEvaluator());
+            for (String memberId : members[t]) {
+                Deque<Participant> candidates = byId.get(memberId);
+                if (candidates == null || candidates.isEmpty()) {
+                    entries.remove(key);  // Cannot happen for a matching fingerprint; treat as a miss
+                    teamIds.remove(key);
+                    return null;
+                }
+                team.addMember(candidates.poll());
+            }
+            teams.add(team);
+        }
+        return teams;
+    }
+
+    public synchronized void put(Key key, List<Team> teams) {
+        String[][] members = new String[teams.size()][];
+        String[] ids = new String[teams.size()];
+        for (int t = 0; t < members.length; t++) {
+            Team team = teams.get(t);
+            ids[t] = team.getId();
+            members[t] = new String[team.getTeamSize()];
+            for (int i = 0; i < members[t].length; i++) {
+                members[t][i] = team.getMember(i).getId();
+            }
+        }
+        teamIds.put(key, ids);
+        entries.put(key, members);
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        teamIds.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public static Key keyFor(List<Participant> participants, int teamSize, String strategyName,
+                             boolean parallel, FormationOptions options) {
+        // Two independent 64-bit sums of per-participant hashes: addition is order-independent
+        // and, unlike XOR, does not cancel out duplicated participants
+        long sum1 = 0;
+        long sum2 = 0;
+        for (Participant participant : participants) {
+            long h = participantHash(participant);
+            sum1 += FormationOptions.mix(h, 0);
+            sum2 += FormationOptions.mix(h, 1);
+        }
+        return new Key(sum1, sum2, participants.size(), teamSize, strategyName, parallel, options);
+    }
+
+    private static long participantHash(Participant participant) {
+        long h = FNV_OFFSET;
+        h = hash(h, participant.getId());
+        h = hash(h, participant.getName());
+        h = hash(h, participant.getEmail());
+        h = hash(h, participant.getPreferredGame());
+        h = (h ^ participant.getSkillLevel()) * FNV_PRIME;
+        h = (h ^ participant.getPreferredRole().ordinal()) * FNV_PRIME;
+        h = (h ^ participant.getPersonalityScore()) * FNV_PRIME;
+        h = (h ^ participant.getPersonalityType().ordinal()) * FNV_PRIME;
+        return h;
+    }
+
+    // 64-bit FNV-1a over the chars, with a separator so field boundaries count
+    private static long hash(long h, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            h = (h ^ value.charAt(i)) * FNV_PRIME;
+        }
+        return (h ^ 0xFFFF) * FNV_PRIME;
+    }
+
+    public static final class Key {
+        private final long fingerprint1;
+        private final long fingerprint2;
+        private final int participantCount;
+        private final int teamSize;
+        private final String strategyName;
+        private final boolean parallel;
+        private final FormationOptions options;
+
+        Key(long fingerprint1, long fingerprint2, int participantCount, int teamSize,
+            String strategyName, boolean parallel, FormationOptions options) {
+            this.fingerprint1 = fingerprint1;
+            this.fingerprint2 = fingerprint2;
+            this.participantCount = participantCount;
+            this.teamSize = teamSize;
+            this.strategyName = strategyName;
+            this.parallel = parallel;
+            this.options = options;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return fingerprint1 == other.fingerprint1
+                    && fingerprint2 == other.fingerprint2
+                    && participantCount == other.participantCount
+                    && teamSize == other.teamSize
+                    && parallel == other.parallel
+                    && strategyName.equals(other.strategyName)
+                    && options.equals(other.options);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(fingerprint1, fingerprint2, participantCount, teamSize,
+                    strategyName, parallel, options);
+        }
+    }
+}
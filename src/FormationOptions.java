@@ -0,0 +1,144 @@
+import java.time.Duration;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Immutable per-run settings for a formation strategy. Use the with* methods to derive
+// modified copies, e.g. FormationOptions.defaults().withSeed(42).
+public final class FormationOptions {
+    private static final long NO_BUDGET = 0L;
+    private static final FormationOptions DEFAULTS = new FormationOptions(false, 0L, NO_BUDGET, Double.NaN,
+            FormationProgressListener.NONE, BalanceEvaluator.DEFAULT);
+    static final long NO_DEADLINE = Long.MAX_VALUE;
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final boolean seeded;
+    private final long seed;
+    private final long timeBudgetNanos;
+    private final double targetScore;
+    private final FormationProgressListener progressListener;
+    private final BalanceEvaluator evaluator;
+
+    private FormationOptions(boolean seeded, long seed, long timeBudgetNanos, double targetScore,
+                             FormationProgressListener progressListener, BalanceEvaluator evaluator) {
+        this.seeded = seeded;
+        this.seed = seed;
+        this.timeBudgetNanos = timeBudgetNanos;
+        this.targetScore = targetScore;
+        this.progressListener = progressListener;
+        this.evaluator = evaluator;
+    }
+
+    public static FormationOptions defaults() {
+        return DEFAULTS;
+    }
+
+    // With a seed, a strategy returns the same teams for the same input on every run,
+    // whatever the thread or core count
+    public FormationOptions withSeed(long seed) {
+        return new FormationOptions(true, seed, timeBudgetNanos, targetScore, progressListener, evaluator);
+    }
+
+    public FormationOptions withoutSeed() {
+        return new FormationOptions(false, 0L, timeBudgetNanos, targetScore, progressListener, evaluator);
+    }
+
+    // Anytime search: keep improving until the budget runs out (or the target is reached)
+    // and return the best formation found. At least one attempt always completes. With a
+    // budget the result depends on machine speed, even when seeded.
+    public FormationOptions withTimeBudget(Duration budget) {
+        if (budget.isNegative() || budget.isZero()) {
+            throw new IllegalArgumentException("Time budget must be positive");
+        }
+        return new FormationOptions(seeded, seed, budget.toNanos(), targetScore, progressListener, evaluator);
+    }
+
+    public FormationOptions withoutTimeBudget() {
+        return new FormationOptions(seeded, seed, NO_BUDGET, targetScore, progressListener, evaluator);
+    }
+
+    // Stop as soon as the overall balance score (average over teams) reaches the target
+    public FormationOptions withTargetScore(double targetScore) {
+        if (Double.isNaN(targetScore)) {
+            throw new IllegalArgumentException("Target score must be a number");
+        }
+        return new FormationOptions(seeded, seed, timeBudgetNanos, targetScore, progressListener, evaluator);
+    }
+
+    public FormationOptions withoutTargetScore() {
+        return new FormationOptions(seeded, seed, timeBudgetNanos, Double.NaN, progressListener, evaluator);
+    }
+
+    // Not part of equals/hashCode: listening does not change the result
+    public FormationOptions withProgressListener(FormationProgressListener listener) {
+        return new FormationOptions(seeded, seed, timeBudgetNanos, targetScore,
+                listener == null ? FormationProgressListener.NONE : listener, evaluator);
+    }
+
+    // Score teams by a club's own rules instead of the defaults; compiled once, here
+    public FormationOptions withScoring(ScoringConfig config) {
+        return new FormationOptions(seeded, seed, timeBudgetNanos, targetScore, progressListener, config.compile());
+    }
+
+    public boolean hasSeed() { return seeded; }
+    public long getSeed() { return seed; }
+    public boolean hasTimeBudget() { return timeBudgetNanos != NO_BUDGET; }
+    public Duration getTimeBudget() { return Duration.ofNanos(timeBudgetNanos); }
+    public boolean hasTargetScore() { return !Double.isNaN(targetScore); }
+    public double getTargetScore() { return targetScore; }
+    public FormationProgressListener getProgressListener() { return progressListener; }
+    public BalanceEvaluator getEvaluator() { return evaluator; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof FormationOptions)) {
+            return false;
+        }
+        FormationOptions other = (FormationOptions) o;
+        return seeded == other.seeded
+                && seed == other.seed
+                && timeBudgetNanos == other.timeBudgetNanos
+                && Double.compare(targetScore, other.targetScore) == 0
+                && evaluator.getConfig().equals(other.evaluator.getConfig());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(seeded, seed, timeBudgetNanos, targetScore, evaluator.getConfig());
+    }
+
+    // Absolute System.nanoTime() deadline for a run starting at startNanos
+    long deadlineFrom(long startNanos) {
+        return hasTimeBudget() ? startNanos + timeBudgetNanos : NO_DEADLINE;
+    }
+
+    // Overflow-safe, as System.nanoTime() values may be negative
+    static boolean isPast(long deadline) {
+        return deadline != NO_DEADLINE && System.nanoTime() - deadline >= 0;
+    }
+
+    double targetScoreOr(double defaultTarget) {
+        return hasTargetScore() ? targetScore : defaultTarget;
+    }
+
+    // The configured seed, or a fresh random one for unseeded runs
+    long resolveSeed() {
+        return seeded ? seed : ThreadLocalRandom.current().nextLong();
+    }
+
+    // Independent random stream for one attempt (or partition) of a run. The index is mixed
+    // into the seed, so neighbouring indexes do not get overlapping streams.
+    static SplittableRandom randomFor(long seed, long index) {
+        return new SplittableRandom(mix(seed, index));
+    }
+
+    static long mix(long seed, long index) {
+        long z = seed + (index + 1) * GOLDEN_GAMMA;
+        z = (z ^ (z >>> 33)) * 0xFF51AFD7ED558CCDL;
+        z = (z ^ (z >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return z ^ (z >>> 33);
+    }
+}
@@ -0,0 +1,11 @@
+// Receives progress from a running formation. Parallel strategies call it from several worker
+// threads at once, so implementations must be thread-safe and return quickly.
+@FunctionalInterface
+public interface FormationProgressListener {
+    FormationProgressListener NONE = (completed, total, bestScore) -> { };
+
+    // completed and total count the strategy's own units of work (attempts, swaps or
+    // partitions); total is -1 when the run is bounded by a time budget instead.
+    // bestScore is the best overall balance score found so far.
+    void onProgress(long completed, long total, double bestScore);
+}
@@ -0,0 +1,226 @@
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Runs many independent formation jobs (one per tournament, bracket or campus) on the shared
+// compute pool. Each job is formed sequentially on one worker, with its own strategy, options
+// (seed, time budget, target, progress) and result, and at most maxRunningJobs run at once,
+// so throughput scales with the cores while the pool stays free for other work.
+//
+// Waiting jobs are ordered by a virtual start time: submission time plus a charge per
+// participant. Small jobs therefore overtake large ones, but only by a bounded amount: once a
+// large job has waited its own charge it outranks every newcomer, so nothing starves.
+public class FormationScheduler {
+    private static final long NANOS_PER_PARTICIPANT = 10_000;  // A 1,000-player job yields 10 ms
+
+    public enum Status { QUEUED, RUNNING, SUCCEEDED, FAILED, CANCELLED }
+
+    private final TeamFormationStrategy defaultStrategy;
+    private final int maxRunningJobs;
+    private final PriorityQueue<Job> queue = new PriorityQueue<>(
+            Comparator.comparingLong((Job job) -> job.virtualStart).thenComparingLong(job -> job.id));
+    private final AtomicLong nextId = new AtomicLong(1);
+    private int runningJobs;  // Guarded by queue
+    private boolean shutdown;  // Guarded by queue
+
+    public FormationScheduler() {
+        this(new BalancedTeamStrategy(), AppExecutors.compute().getParallelism());
+    }
+
+    public FormationScheduler(TeamFormationStrategy defaultStrategy, int maxRunningJobs) {
+        if (maxRunningJobs < 1) {
+            throw new IllegalArgumentException("maxRunningJobs must be at least 1");
+        }
+        this.defaultStrategy = defaultStrategy;
+        this.maxRunningJobs = maxRunningJobs;
+    }
+
+    public Job submit(String name, List<Participant> participants, int teamSize) {
+        return submit(name, participants, teamSize, defaultStrategy, FormationOptions.defaults());
+    }
+
+    public Job submit(String name, List<Participant> participants, int teamSize, FormationOptions options) {
+        return submit(name, participants, teamSize, defaultStrategy, options);
+    }
+
+    // The participant list is copied, so the caller may keep changing theirs. A time budget
+    // in the options counts from when the job starts running, not from submission.
+    public Job submit(String name, List<Participant> participants, int teamSize,
+                      TeamFormationStrategy strategy, FormationOptions options) {
+        if (teamSize < 1) {
+            throw new IllegalArgumentException("Team size must be at least 1");
+        }
+        Job job = new Job(nextId.getAndIncrement(), name, new ArrayList<>(participants), teamSize,
+                strategy, options);
+        synchronized (queue) {
+            if (shutdown) {
+                throw new IllegalStateException("Formation scheduler has been shut down");
+            }
+            queue.add(job);
+        }
+        dispatch();
+        return job;
+    }
+
+    public int getQueuedJobs() {
+        synchronized (queue) {
+            return queue.size();
+        }
+    }
+
+    public int getRunningJobs() {
+        synchronized (queue) {
+            return runningJobs;
+        }
+    }
+
+    // Cancels everything still waiting and refuses new jobs; running jobs finish normally
+    public void shutdown() {
+        List<Job> waiting;
+        synchronized (queue) {
+            shutdown = true;
+            waiting = new ArrayList<>(queue);
+        }
+        waiting.forEach(Job::cancel);
+    }
+
+    // Starts queued jobs while there are free slots. Tasks are handed to the pool outside
+    // the lock, so a job finishing on another worker never waits for a dispatch.
+    private void dispatch() {
+        List<Job> ready = new ArrayList<>();
+        synchronized (queue) {
+            while (runningJobs < maxRunningJobs && !queue.isEmpty()) {
+                ready.add(queue.poll());
+                runningJobs++;
+            }
+        }
+        for (Job job : ready) {
+            AppExecutors.compute().execute(job::run);
+        }
+    }
+
+    private void finished() {
+        synchronized (queue) {
+            runningJobs--;
+        }
+        dispatch();
+    }
+
+    public final class Job {
+        private final long id;
+        private final String name;
+        private final List<Participant> participants;
+        private final int teamSize;
+        private final TeamFormationStrategy strategy;
+        private final FormationOptions options;
+        private final long submittedNanos = System.nanoTime();
+        private final long virtualStart;
+        private final AtomicReference<Status> status = new AtomicReference<>(Status.QUEUED);
+        private final CompletableFuture<List<Team>> result = new CompletableFuture<>();
+        private volatile long startedNanos;
+        private volatile long finishedNanos;
+        private Thread runner;  // Guarded by this
+
+        private Job(long id, String name, List<Participant> participants, int teamSize,
+                    TeamFormationStrategy strategy, FormationOptions options) {
+            this.id = id;
+            this.name = name;
+            this.participants = participants;
+            this.teamSize = teamSize;
+            this.strategy = strategy;
+            this.options = options;
+            this.virtualStart = submittedNanos + participants.size() * NANOS_PER_PARTICIPANT;
+            // Cancelling the future directly cancels the job too
+            result.whenComplete((teams, failure) -> {
+                if (result.isCancelled()) {
+                    cancel();
+                }
+            });
+        }
+
+        private void run() {
+            try {
+                if (!status.compareAndSet(Status.QUEUED, Status.RUNNING)) {
+                    return;  // Cancelled between dispatch and start
+                }
+                synchronized (this) {
+                    runner = Thread.currentThread();
+                }
+                startedNanos = System.nanoTime();
+                try {
+                    List<Team> teams = strategy.formTeams(participants, teamSize, options);
+                    if (status.compareAndSet(Status.RUNNING, Status.SUCCEEDED)) {
+                        result.complete(teams);
+                    }
+                } catch (RuntimeException | Error e) {
+                    if (status.compareAndSet(Status.RUNNING, Status.FAILED)) {
+                        result.completeExceptionally(e);
+                    }
+                } finally {
+                    finishedNanos = System.nanoTime();
+                    synchronized (this) {
+                        runner = null;
+                        Thread.interrupted();  // A cancel must not leak into the worker's next task
+                    }
+                }
+            } finally {
+                finished();
+            }
+        }
+
+        // A queued job is dropped; a running one is interrupted, which the strategies treat
+        // like an expired budget. Returns false when the job had already finished.
+        public boolean cancel() {
+            if (status.compareAndSet(Status.QUEUED, Status.CANCELLED)) {
+                synchronized (queue) {
+                    queue.remove(this);
+                }
+                result.cancel(false);
+                return true;
+            }
+            if (status.compareAndSet(Status.RUNNING, Status.CANCELLED)) {
+                synchronized (this) {
+                    if (runner != null) {
+                        runner.interrupt();
+                    }
+                }
+                result.cancel(false);
+                return true;
+            }
+            return status.get() == Status.CANCELLED;
+        }
+
+        public long getId() { return id; }
+        public String getName() { return name; }
+        public int getParticipantCount() { return participants.size(); }
+        public int getTeamSize() { return teamSize; }
+        public Status getStatus() { return status.get(); }
+        public CompletableFuture<List<Team>> getResult() { return result; }
+
+        // Time spent waiting for a slot, so far if the job is still queued
+        public Duration getQueueTime() {
+            long started = startedNanos;
+            return Duration.ofNanos((started != 0 ? started : System.nanoTime()) - submittedNanos);
+        }
+
+        // Time spent forming, so far if the job is still running; zero before it starts
+        public Duration getRunTime() {
+            long started = startedNanos;
+            if (started == 0) {
+                return Duration.ZERO;
+            }
+            long finished = finishedNanos;
+            return Duration.ofNanos((finished != 0 ? finished : System.nanoTime()) - started);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Job %d (%s): %d participants, %s", id, name, participants.size(), status.get());
+        }
+    }
+}
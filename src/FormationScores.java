@@ -0,0 +1,45 @@
+import java.util.List;
+
+// Scores for a whole formation. Balance is the average of Team.getBalanceScore; skill parity
+// measures how evenly matched the teams are, from the gap between the strongest and weakest
+// team's average skill; the combined score weighs the two together, by the skill parity weight
+// of the rules the teams were scored with.
+public final class FormationScores {
+    private static final double SKILL_RANGE = Participant.MAX_SKILL_LEVEL - Participant.MIN_SKILL_LEVEL;
+
+    private FormationScores() {
+    }
+
+    public static double averageBalanceScore(List<Team> teams) {
+        double total = 0;
+        for (Team team : teams) {
+            total += team.getBalanceScore();
+        }
+        return teams.isEmpty() ? 0.0 : total / teams.size();
+    }
+
+    // Highest minus lowest average team skill; empty teams are ignored
+    public static double skillSpread(List<Team> teams) {
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        for (Team team : teams) {
+            if (team.getTeamSize() > 0) {
+                double average = team.getAverageSkill();
+                min = Math.min(min, average);
+                max = Math.max(max, average);
+            }
+        }
+        return max < min ? 0.0 : max - min;
+    }
+
+    // 100 when every team has the same average skill, 0 when the gap spans the whole skill scale
+    public static double skillParityScore(List<Team> teams) {
+        return 100.0 * (1.0 - skillSpread(teams) / SKILL_RANGE);
+    }
+
+    public static double combinedScore(List<Team> teams) {
+        double parityWeight = (teams.isEmpty() ? BalanceEvaluator.DEFAULT : teams.get(0).getEvaluator())
+                .getSkillParityWeight();
+        return (1.0 - parityWeight) * averageBalanceScore(teams) + parityWeight * skillParityScore(teams);
+    }
+}
@@ -0,0 +1,173 @@
+import java.util.*;
+import java.util.random.RandomGenerator;
+
+public class LocalSearchTeamStrategy implements TeamFormationStrategy {
+    private static final int ITERATIONS_PER_PARTICIPANT = 20;
+    private static final int MIN_ITERATIONS = 10_000;
+    private static final double START_TEMPERATURE = 20.0;
+    private static final double END_TEMPERATURE = 0.5;
+    private static final int CHECK_INTERVAL_MASK = 255;  // Deadline and interrupt check every 256 swaps
+    private static final int PROGRESS_INTERVAL_MASK = 4095;  // Progress report every 4096 swaps
+
+    private final BalancedTeamStrategy seedStrategy = new BalancedTeamStrategy();
+
+    @Override
+    public List<Team> formTeams(List<Participant> participants, int teamSize) {
+        return formTeams(participants, teamSize, FormationOptions.defaults());
+    }
+
+    // One stream from the seed drives both the starting formation and the annealing.
+    // With a time budget the cooling schedule follows the clock instead of an iteration count.
+    @Override
+    public List<Team> formTeams(List<Participant> participants, int teamSize, FormationOptions options) {
+        ParticipantTable table = ParticipantTable.of(participants);
+        if (table.size() == 0) {
+            return new ArrayList<>();
+        }
+        long startTime = System.nanoTime();
+
+        // Start from a single round-robin formation instead of 100 restarts
+        BalanceEvaluator evaluator = options.getEvaluator();
+        BalancedTeamStrategy.Workspace workspace = new BalancedTeamStrategy.Workspace(table, teamSize, evaluator);
+        RandomGenerator random = FormationOptions.randomFor(options.resolveSeed(), 0);
+        seedStrategy.attemptFormation(workspace, random);
+        TeamComposition[] teams = workspace.teams;
+        if (teams.length < 2) {
+            return table.toTeams(teams);
+        }
+
+        int iterations = options.hasTimeBudget()
+                ? Integer.MAX_VALUE
+                : Math.max(MIN_ITERATIONS, table.size() * ITERATIONS_PER_PARTICIPANT);
+        List<Team> result = anneal(table, teams, iterations, random, options.deadlineFrom(startTime),
+                options.targetScoreOr(evaluator.getMaxScore()), options.getProgressListener());
+        TeamMateMetrics.getInstance().recordSearchTime(System.nanoTime() - startTime);
+        return result;
+    }
+
+    // Simulated annealing over member swaps between two teams. A swap keeps team sizes
+    // fixed, and only the two affected teams are rescored for each candidate, by table lookup.
+    private List<Team> anneal(ParticipantTable table, TeamComposition[] teams, int iterations,
+                              RandomGenerator random, long deadline, double targetScore,
+                              FormationProgressListener listener) {
+        int teamCount = teams.length;
+        boolean timed = deadline != FormationOptions.NO_DEADLINE;
+        long budget = deadline - System.nanoTime();
+
+        double[] scores = new double[teamCount];
+        double total = 0;
+        for (int t = 0; t < teamCount; t++) {
+            scores[t] = teams[t].getBalanceScore();
+            total += scores[t];
+        }
+
+        double targetTotal = targetScore * teamCount;
+        double bestTotal = total;
+        boolean currentIsBest = true;
+        int[][] bestMembers = null;
+
+        long evaluated = 0;
+        double temperature = START_TEMPERATURE;
+        double cooling = timed ? 1.0 : Math.pow(END_TEMPERATURE / START_TEMPERATURE, 1.0 / iterations);
+
+        for (int iteration = 0; iteration < iterations && total < targetTotal; iteration++, temperature *= cooling) {
+            if ((iteration & CHECK_INTERVAL_MASK) == CHECK_INTERVAL_MASK) {
+                if (FormationOptions.isPast(deadline) || Thread.currentThread().isInterrupted()) {
+                    break;
+                }
+                if (timed) {
+                    double progress = 1.0 - (deadline - System.nanoTime()) / (double) budget;
+                    temperature = START_TEMPERATURE * Math.pow(END_TEMPERATURE / START_TEMPERATURE, progress);
+                }
+                if ((iteration & PROGRESS_INTERVAL_MASK) == PROGRESS_INTERVAL_MASK) {
+                    listener.onProgress(iteration + 1, timed ? -1 : iterations, bestTotal / teamCount);
+                }
+            }
+
+            int t1 = random.nextInt(teamCount);
+            int t2 = random.nextInt(teamCount - 1);
+            if (t2 >= t1) {
+                t2++;
+            }
+
+            TeamComposition team1 = teams[t1];
+            TeamComposition team2 = teams[t2];
+            if (team1.size() == 0 || team2.size() == 0) {
+                continue;
+            }
+            int i = random.nextInt(team1.size());
+            int j = random.nextInt(team2.size());
+            int a = team1.memberAt(i);
+            int b = team2.memberAt(j);
+            if (isEquivalent(table, a, b)) {
+                continue;
+            }
+            // A swap that pushes either team past a hard limit is turned down unscored
+            if (!team1.canReplace(i, b) || !team2.canReplace(j, a)) {
+                continue;
+            }
+
+            // Scored from the counters; the teams only change once the swap is accepted
+            evaluated++;
+            double newScore1 = team1.scoreAfterReplace(i, b);
+            double newScore2 = team2.scoreAfterReplace(j, a);
+            double delta = (newScore1 + newScore2) - (scores[t1] + scores[t2]);
+
+            if (delta >= 0 || random.nextDouble() < Math.exp(delta / temperature)) {
+                if (delta < 0 && currentIsBest) {
+                    // About to leave the best state seen so far: remember it first
+                    bestMembers = snapshot(teams);
+                    currentIsBest = false;
+                }
+                team1.replace(i, b);
+                team2.replace(j, a);
+                scores[t1] = newScore1;
+                scores[t2] = newScore2;
+                total += delta;
+                if (total >= bestTotal) {
+                    bestTotal = total;
+                    currentIsBest = true;
+                }
+            }
+        }
+
+        TeamMateMetrics.getInstance().recordAttempts(evaluated);
+
+        if (!currentIsBest) {
+            for (int t = 0; t < teamCount; t++) {
+                for (int k = 0; k < bestMembers[t].length; k++) {
+                    teams[t].replace(k, bestMembers[t][k]);
+                }
+            }
+        }
+        return table.toTeams(teams);
+    }
+
+    // Swapping two participants with the same scoring attributes cannot change any score
+    private static boolean isEquivalent(ParticipantTable table, int a, int b) {
+        return table.personality(a) == table.personality(b)
+                && table.role(a) == table.role(b)
+                && table.gameId(a) == table.gameId(b);
+    }
+
+    private static int[][] snapshot(TeamComposition[] teams) {
+        int[][] members = new int[teams.length][];
+        for (int t = 0; t < teams.length; t++) {
+            members[t] = new int[teams[t].size()];
+            for (int k = 0; k < members[t].length; k++) {
+                members[t][k] = teams[t].memberAt(k);
+            }
+        }
+        return members;
+    }
+
+    @Override
+    public String getStrategyName() {
+        return "Local Search Strategy";
+    }
+
+    @Override
+    public String getStrategyDescription() {
+        return "Improves a round-robin formation with simulated annealing over member swaps between teams";
+    }
+}
@@ -1,4 +1,7 @@
 public class Participant extends Person {
+    static final int MIN_SKILL_LEVEL = 1;
+    static final int MAX_SKILL_LEVEL = 10;
+
     private final String email;
     private final String preferredGame;
     private final int skillLevel;
@@ -8,15 +11,23 @@ public class Participant extends Person {
 
     public Participant(String id, String name, String email, String preferredGame,
                        int skillLevel, Role preferredRole, int personalityScore) {
+        this(id, name, email, preferredGame, skillLevel, preferredRole, personalityScore,
+                PersonalityType.classifyFromScore(personalityScore));
+
+        validateParticipant();
+    }
+
+    // Skips validation: only for data that was validated when it was first imported,
+    // such as participant snapshots
+    Participant(String id, String name, String email, String preferredGame, int skillLevel,
+                Role preferredRole, int personalityScore, PersonalityType personalityType) {
         super(id, name);  // Calling parent constructor
         this.email = email;
         this.preferredGame = preferredGame;
         this.skillLevel = skillLevel;
         this.preferredRole = preferredRole;
         this.personalityScore = personalityScore;
-        this.personalityType = PersonalityType.classifyFromScore(personalityScore);
-
-        validateParticipant();
+        this.personalityType = personalityType;
     }
 
     @Override
@@ -29,7 +40,7 @@ public class Participant extends Person {
         if (email == null || !email.contains("@")) {
             throw new IllegalArgumentException("Invalid email format");
         }
-        if (skillLevel < 1 || skillLevel > 10) {
+        if (skillLevel < MIN_SKILL_LEVEL || skillLevel > MAX_SKILL_LEVEL) {
             throw new IllegalArgumentException("Skill level must be between 1-10");
         }
     }
@@ -0,0 +1,194 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+// Long-lived append channel for the participants CSV. Appends are queued and a single
+// writer thread drains whatever has accumulated into one write (group commit). Each
+// append's future completes once its record is durable under the configured FlushPolicy.
+public class ParticipantAppendWriter implements AutoCloseable {
+    public enum FlushPolicy {
+        PER_BATCH,    // fsync after every batch
+        INTERVAL,     // fsync at most once per flush interval
+        ON_SHUTDOWN   // fsync only when the writer is closed
+    }
+
+    static final String HEADER = "ID,Name,Email,PreferredGame,SkillLevel,PreferredRole,PersonalityScore,PersonalityType";
+    private static final int MAX_BATCH = 1024;
+    private static final PendingAppend SHUTDOWN = new PendingAppend(null, null);
+
+    private final Path path;
+    private final FlushPolicy flushPolicy;
+    private final long flushIntervalNanos;
+    private final FileChannel channel;
+    private final BlockingQueue<PendingAppend> queue = new LinkedBlockingQueue<>();
+    private final Thread writerThread;
+    private final Object lifecycleLock = new Object();
+    private boolean closed;
+
+    public ParticipantAppendWriter(Path path, FlushPolicy flushPolicy, long flushIntervalMillis) throws IOException {
+        this.path = path;
+        this.flushPolicy = flushPolicy;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, flushIntervalMillis));
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+
+        try {
+            if (channel.size() == 0) {
+                writeFully(ByteBuffer.wrap((HEADER + System.lineSeparator()).getBytes(StandardCharsets.UTF_8)));
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();  // Nobody else holds the channel yet
+            throw e;
+        }
+
+        // Blocks on the queue and on fsync most of the time, so a virtual thread is enough
+        this.writerThread = Thread.ofVirtual().name("participant-append-writer").start(this::run);
+    }
+
+    public CompletableFuture<Void> append(Participant participant) {
+        CompletableFuture<Void> durable = new CompletableFuture<>();
+        synchronized (lifecycleLock) {
+            if (closed) {
+                durable.completeExceptionally(new DataSavingException("Append writer for " + path + " is closed"));
+            } else {
+                queue.add(new PendingAppend(participant, durable));
+            }
+        }
+        return durable;
+    }
+
+    // Appends waiting for the writer thread
+    public int getQueuedAppends() {
+        return queue.size();
+    }
+
+    // Writes and syncs everything still queued, then releases the file
+    @Override
+    public void close() {
+        synchronized (lifecycleLock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            queue.add(SHUTDOWN);
+        }
+        try {
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        List<PendingAppend> batch = new ArrayList<>(MAX_BATCH);
+        List<CompletableFuture<Void>> unsynced = new ArrayList<>();
+        long lastSync = System.nanoTime();
+        boolean running = true;
+
+        while (running) {
+            PendingAppend first;
+            try {
+                first = flushPolicy == FlushPolicy.INTERVAL && !unsynced.isEmpty()
+                        ? queue.poll(Math.max(0, lastSync + flushIntervalNanos - System.nanoTime()), TimeUnit.NANOSECONDS)
+                        : queue.take();
+            } catch (InterruptedException e) {
+                first = SHUTDOWN;
+            }
+
+            if (first != null) {
+                batch.add(first);
+                queue.drainTo(batch, MAX_BATCH - 1);
+                running = !batch.remove(SHUTDOWN);
+                if (!running) {
+                    queue.drainTo(batch);  // Nothing can be queued after SHUTDOWN
+                }
+                writeBatch(batch, unsynced);
+                batch.clear();
+            }
+
+            boolean syncDue = flushPolicy == FlushPolicy.PER_BATCH
+                    || (flushPolicy == FlushPolicy.INTERVAL && System.nanoTime() - lastSync >= flushIntervalNanos)
+                    || !running;
+            if (syncDue && !unsynced.isEmpty()) {
+                sync(unsynced);
+                lastSync = System.nanoTime();
+            }
+        }
+
+        try {
+            channel.close();
+        } catch (IOException e) {
+            System.out.println("Warning: Could not close " + path + ": " + e.getMessage());
+        }
+    }
+
+    private void writeBatch(List<PendingAppend> batch, List<CompletableFuture<Void>> unsynced) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        StringBuilder sb = new StringBuilder(batch.size() * 96);
+        for (PendingAppend pending : batch) {
+            appendLine(sb, pending.participant);
+        }
+
+        try {
+            writeFully(ByteBuffer.wrap(sb.toString().getBytes(StandardCharsets.UTF_8)));
+            batch.forEach(pending -> unsynced.add(pending.durable));
+        } catch (IOException e) {
+            DataSavingException failure = new DataSavingException(
+                    "Error appending participant to file: " + e.getMessage(), e);
+            batch.forEach(pending -> pending.durable.completeExceptionally(failure));
+        }
+    }
+
+    private void sync(List<CompletableFuture<Void>> unsynced) {
+        try {
+            channel.force(false);
+            unsynced.forEach(durable -> durable.complete(null));
+        } catch (IOException e) {
+            DataSavingException failure = new DataSavingException(
+                    "Error syncing participants file: " + e.getMessage(), e);
+            unsynced.forEach(durable -> durable.completeExceptionally(failure));
+        }
+        unsynced.clear();
+    }
+
+    private void writeFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static void appendLine(StringBuilder sb, Participant participant) {
+        appendField(sb, participant.getId()).append(',');
+        appendField(sb, participant.getName()).append(',');
+        appendField(sb, participant.getEmail()).append(',');
+        appendField(sb, participant.getPreferredGame()).append(',');
+        sb.append(participant.getSkillLevel()).append(',');
+        sb.append(participant.getPreferredRole()).append(',');
+        sb.append(participant.getPersonalityScore()).append(',');
+        sb.append(participant.getPersonalityType()).append(System.lineSeparator());
+    }
+
+    // Quotes only when needed, so plain rows look exactly as before
+    private static StringBuilder appendField(StringBuilder sb, String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0) {
+            return sb.append(value);
+        }
+        return sb.append('"').append(value.replace("\"", "\"\"")).append('"');
+    }
+
+    private static class PendingAppend {
+        final Participant participant;
+        final CompletableFuture<Void> durable;
+
+        PendingAppend(Participant participant, CompletableFuture<Void> durable) {
+            this.participant = participant;
+            this.durable = durable;
+        }
+    }
+}
@@ -0,0 +1,266 @@
+// Hand-rolled scanner for one participant CSV row. Fields are located in place inside the
+// char buffer, numbers are parsed straight from the chars, and only the strings a
+// Participant keeps are allocated. Not thread-safe: use one parser per thread or chunk.
+public class ParticipantLineParser {
+    static final int FIELD_COUNT = 8;
+    private static final int GAME_CACHE_SIZE = 32;
+
+    private static final int ID = 0;
+    private static final int NAME = 1;
+    private static final int EMAIL = 2;
+    private static final int GAME = 3;
+    private static final int SKILL = 4;
+    private static final int ROLE = 5;
+    private static final int PERSONALITY_SCORE = 6;
+
+    // Field bounds of the current row; quoted fields point inside the quotes
+    private final int[] fieldStart = new int[FIELD_COUNT];
+    private final int[] fieldEnd = new int[FIELD_COUNT];
+    private final boolean[] fieldEscaped = new boolean[FIELD_COUNT];
+
+    // Game names repeat on almost every row, so reuse the String instances we already made
+    private final String[] gameCache = new String[GAME_CACHE_SIZE];
+    private int gameCacheSize;
+
+    private char[] chars;
+
+    public Participant parse(String line, int lineNumber) throws InvalidDataException {
+        char[] lineChars = line.toCharArray();
+        return parse(lineChars, 0, lineChars.length, lineNumber);
+    }
+
+    public Participant parse(char[] chars, int start, int end, int lineNumber) throws InvalidDataException {
+        this.chars = chars;
+        int fields = splitFields(start, end);
+        if (fields != FIELD_COUNT) {
+            throw new InvalidDataException(
+                    String.format("Invalid number of fields. Expected %d, found %d", FIELD_COUNT, fields)
+            );
+        }
+
+        String id = requireText(ID, "ID", lineNumber);
+        String name = requireText(NAME, "Name", lineNumber);
+        String email = requireText(EMAIL, "Email", lineNumber);
+        String preferredGame = requireGame(lineNumber);
+        int skillLevel = parseSkillLevel(lineNumber);
+        Role preferredRole = parseRole(lineNumber);
+        int personalityScore = parsePersonalityScore(lineNumber);
+
+        try {
+            return new Participant(id, name, email, preferredGame, skillLevel,
+                    preferredRole, personalityScore);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidDataException("Data validation failed: " + e.getMessage());
+        }
+    }
+
+    // Records up to FIELD_COUNT field bounds and returns how many fields the row has. Trailing
+    // fields with nothing at all between their commas are not counted, as String.split(",")
+    // drops them, so "...,50," has the same field count (and the same rejections) as before.
+    private int splitFields(int start, int end) {
+        int fields = 0;
+        int counted = 0;
+        int position = start;
+
+        while (true) {
+            int rawStart = position;
+            int fieldBegin = skipWhitespace(position, end);
+            boolean escaped = false;
+            int valueStart;
+            int valueEnd;
+
+            if (fieldBegin < end && chars[fieldBegin] == '"') {
+                // Quoted field: commas are literal and "" stands for one quote
+                valueStart = fieldBegin + 1;
+                int i = valueStart;
+                while (i < end) {
+                    if (chars[i] == '"') {
+                        if (i + 1 < end && chars[i + 1] == '"') {
+                            escaped = true;
+                            i += 2;
+                            continue;
+                        }
+                        break;
+                    }
+                    i++;
+                }
+                valueEnd = i;
+                position = i < end ? i + 1 : end;
+                while (position < end && chars[position] != ',') {
+                    position++;
+                }
+            } else {
+                int i = position;
+                while (i < end && chars[i] != ',') {
+                    i++;
+                }
+                valueStart = fieldBegin;
+                valueEnd = trimEnd(fieldBegin, i);
+                position = i;
+            }
+
+            if (fields < FIELD_COUNT) {
+                fieldStart[fields] = valueStart;
+                fieldEnd[fields] = valueEnd;
+                fieldEscaped[fields] = escaped;
+            }
+            fields++;
+            if (position > rawStart) {
+                counted = fields;
+            }
+
+            if (position >= end) {
+                return counted;
+            }
+            position++;  // Skip the comma
+        }
+    }
+
+    private String requireText(int field, String fieldName, int lineNumber) throws InvalidDataException {
+        if (fieldStart[field] >= fieldEnd[field]) {
+            throw new InvalidDataException(
+                    String.format("Field '%s' cannot be empty at line %d", fieldName, lineNumber)
+            );
+        }
+        return text(field);
+    }
+
+    private String requireGame(int lineNumber) throws InvalidDataException {
+        int start = fieldStart[GAME];
+        int end = fieldEnd[GAME];
+        if (fieldEscaped[GAME] || start >= end) {
+            return requireText(GAME, "PreferredGame", lineNumber);
+        }
+        for (int i = 0; i < gameCacheSize; i++) {
+            if (matches(gameCache[i], start, end)) {
+                return gameCache[i];
+            }
+        }
+        String game = new String(chars, start, end - start);
+        if (gameCacheSize < GAME_CACHE_SIZE) {
+            gameCache[gameCacheSize++] = game;
+        }
+        return game;
+    }
+
+    private int parseSkillLevel(int lineNumber) throws InvalidDataException {
+        int skill = parseInt(SKILL);
+        if (skill == Integer.MIN_VALUE) {
+            throw new InvalidDataException(
+                    String.format("Invalid skill level format at line %d: %s", lineNumber, text(SKILL))
+            );
+        }
+        if (skill < 1 || skill > 10) {
+            throw new InvalidDataException(
+                    String.format("Skill level must be between 1-10 at line %d", lineNumber)
+            );
+        }
+        return skill;
+    }
+
+    private Role parseRole(int lineNumber) throws InvalidDataException {
+        Role role = Role.lookup(chars, fieldStart[ROLE], fieldEnd[ROLE]);
+        if (role == null) {
+            throw new InvalidDataException(
+                    String.format("Invalid role '%s' at line %d", text(ROLE), lineNumber)
+            );
+        }
+        return role;
+    }
+
+    private int parsePersonalityScore(int lineNumber) throws InvalidDataException {
+        int score = parseInt(PERSONALITY_SCORE);
+        if (score == Integer.MIN_VALUE) {
+            throw new InvalidDataException(
+                    String.format("Invalid personality score format at line %d: %s",
+                            lineNumber, text(PERSONALITY_SCORE))
+            );
+        }
+        if (score < 0 || score > 100) {
+            throw new InvalidDataException(
+                    String.format("Personality score must be between 0-100 at line %d", lineNumber)
+            );
+        }
+        return score;
+    }
+
+    // Returns Integer.MIN_VALUE when the field is not a plain decimal int
+    private int parseInt(int field) {
+        int i = fieldStart[field];
+        int end = fieldEnd[field];
+        if (i >= end) {
+            return Integer.MIN_VALUE;
+        }
+        boolean negative = chars[i] == '-';
+        if (negative || chars[i] == '+') {
+            i++;
+        }
+        if (i >= end) {
+            return Integer.MIN_VALUE;
+        }
+        long value = 0;
+        for (; i < end; i++) {
+            int digit = chars[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return Integer.MIN_VALUE;
+            }
+            value = value * 10 + digit;
+            if (value > Integer.MAX_VALUE) {
+                return Integer.MIN_VALUE;  // Overflow counts as a format error, like Integer.parseInt
+            }
+        }
+        return (int) (negative ? -value : value);
+    }
+
+    private String text(int field) {
+        int start = fieldStart[field];
+        int end = fieldEnd[field];
+        if (!fieldEscaped[field]) {
+            return new String(chars, start, end - start);
+        }
+        StringBuilder sb = new StringBuilder(end - start);
+        for (int i = start; i < end; i++) {
+            sb.append(chars[i]);
+            if (chars[i] == '"') {
+                i++;  // Collapse the doubled quote
+            }
+        }
+        return sb.toString();
+    }
+
+    private boolean matches(String value, int start, int end) {
+        if (value.length() != end - start) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) != chars[start + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Same whitespace rule as String.trim
+    private int skipWhitespace(int position, int end) {
+        while (position < end && chars[position] <= ' ') {
+            position++;
+        }
+        return position;
+    }
+
+    private int trimEnd(int start, int end) {
+        while (end > start && chars[end - 1] <= ' ') {
+            end--;
+        }
+        return end;
+    }
+
+    static boolean isBlank(char[] chars, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (chars[i] > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,61 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Result of a participant import: the accepted rows plus a summary of rejected ones
+public class ParticipantLoadReport {
+    private static final int MAX_REPORTED_ERRORS = 20;
+    private static final int SUMMARY_ERRORS = 5;
+
+    private final String source;
+    private final List<Participant> participants;
+    private final long rowsRead;
+    private final long rejectedRows;
+    private final List<String> errors;
+    private final long bytesRead;
+    private final long elapsedNanos;
+
+    public ParticipantLoadReport(String source, List<Participant> participants, long rowsRead,
+                                 long rejectedRows, List<String> errors, long bytesRead, long elapsedNanos) {
+        this.source = source;
+        this.participants = participants;
+        this.rowsRead = rowsRead;
+        this.rejectedRows = rejectedRows;
+        this.errors = Collections.unmodifiableList(
+                new ArrayList<>(errors.subList(0, Math.min(errors.size(), MAX_REPORTED_ERRORS))));
+        this.bytesRead = bytesRead;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    // Keeps only the first few messages; the count is always exact
+    static void recordError(List<String> errors, int lineNumber, String message) {
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add(String.format("Line %d - %s", lineNumber, message));
+        }
+    }
+
+    public List<Participant> getParticipants() { return participants; }
+    public long getRowsRead() { return rowsRead; }
+    public long getRejectedRows() { return rejectedRows; }
+    public List<String> getErrors() { return errors; }
+    public long getBytesRead() { return bytesRead; }
+    public long getElapsedNanos() { return elapsedNanos; }
+
+    public double getThroughputMBPerSecond() {
+        return elapsedNanos == 0 ? 0.0 : (bytesRead / (1024.0 * 1024.0)) / (elapsedNanos / 1_000_000_000.0);
+    }
+
+    public String getSummary() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Successfully loaded %d participants from %s (%.1f MB/s)",
+                participants.size(), source, getThroughputMBPerSecond()));
+        if (rejectedRows > 0) {
+            sb.append(String.format("%nWarning: Skipped %d of %d rows", rejectedRows, rowsRead));
+            errors.stream().limit(SUMMARY_ERRORS).forEach(error -> sb.append("\n  - ").append(error));
+            if (rejectedRows > SUMMARY_ERRORS) {
+                sb.append(String.format("%n  ... and %d more", rejectedRows - SUMMARY_ERRORS));
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,209 @@
+import java.io.*;
+import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+// Compact binary form of a participant pool, used to skip CSV parsing on startup.
+//
+// Layout (big-endian):
+//   int magic, short version, long sourceSize, long sourceModifiedNanos
+//   int participantCount, int gameCount
+//   gameCount x string                      game dictionary
+//   participantCount x record:
+//     string id, string name, string email
+//     int gameId, byte skillLevel, byte role | personalityType << 3, byte personalityScore
+//   int CRC32 of every preceding byte
+// where string = unsigned short byte length + UTF-8 bytes.
+public class ParticipantSnapshot {
+    private static final int MAGIC = 0x544D5053;  // "TMPS"
+    private static final short VERSION = 2;
+    private static final int HEADER_BYTES = 4 + 2 + 8 + 8 + 4 + 4;
+    private static final int CHECKSUM_BYTES = 4;
+    private static final int MAX_STRING_BYTES = 0xFFFF;
+
+    private static final Role[] ROLES = Role.values();
+    private static final PersonalityType[] PERSONALITY_TYPES = PersonalityType.values();
+
+    // The CSV a snapshot was built from: its size and modification time as read before
+    // parsing. A snapshot is only used while its CSV still matches, so any edit or append
+    // makes it stale, whatever the two files' timestamps say about each other.
+    public static final class Source {
+        public static final Source NONE = new Source(-1, -1);
+
+        private final long size;
+        private final long modifiedNanos;
+
+        private Source(long size, long modifiedNanos) {
+            this.size = size;
+            this.modifiedNanos = modifiedNanos;
+        }
+
+        public static Source of(Path csv) throws IOException {
+            BasicFileAttributes attributes = Files.readAttributes(csv, BasicFileAttributes.class);
+            return new Source(attributes.size(), attributes.lastModifiedTime().to(TimeUnit.NANOSECONDS));
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Source)) {
+                return false;
+            }
+            Source other = (Source) o;
+            return size == other.size && modifiedNanos == other.modifiedNanos;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(size, modifiedNanos);
+        }
+    }
+
+    public static void write(List<Participant> participants, Path path) throws IOException {
+        write(participants, path, Source.NONE);
+    }
+
+    public static void write(List<Participant> participants, Path path, Source source) throws IOException {
+        // Write to a temporary file first so readers never see a half-written snapshot. Each
+        // writer gets its own, so concurrent loads of one CSV cannot clobber each other.
+        Path directory = path.toAbsolutePath().getParent();
+        Path temp = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+        try {
+            writeTo(temp, participants, source);
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static void writeTo(Path temp, List<Participant> participants, Source source) throws IOException {
+        Map<String, Integer> gameIds = new HashMap<>();
+        List<String> games = new ArrayList<>();
+        for (Participant participant : participants) {
+            gameIds.computeIfAbsent(participant.getPreferredGame(), game -> {
+                games.add(game);
+                return games.size() - 1;
+            });
+        }
+
+        CRC32 crc = new CRC32();
+        try (DataOutputStream out = new DataOutputStream(new CheckedOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16), crc))) {
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeLong(source.size);
+            out.writeLong(source.modifiedNanos);
+            out.writeInt(participants.size());
+            out.writeInt(games.size());
+            for (String game : games) {
+                writeString(out, game);
+            }
+
+            for (Participant participant : participants) {
+                writeString(out, participant.getId());
+                writeString(out, participant.getName());
+                writeString(out, participant.getEmail());
+                out.writeInt(gameIds.get(participant.getPreferredGame()));
+                out.writeByte(participant.getSkillLevel());
+                out.writeByte(participant.getPreferredRole().ordinal()
+                        | participant.getPersonalityType().ordinal() << 3);
+                out.writeByte(participant.getPersonalityScore());
+            }
+
+            out.writeInt((int) crc.getValue());
+        }
+    }
+
+    // Reads through a memory mapping. Records are trusted once the checksum matches,
+    // so no text parsing or validation happens here.
+    public static List<Participant> read(Path path) throws IOException {
+        return read(path, null);
+    }
+
+    // As read(path), but fails unless the snapshot was built from this exact source. The
+    // header is checked before the checksum, so a stale snapshot is rejected cheaply.
+    public static List<Participant> read(Path path, Source expected) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES + CHECKSUM_BYTES || size > Integer.MAX_VALUE) {
+                throw new IOException("Invalid snapshot size: " + size + " bytes");
+            }
+
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Not a participant snapshot");
+            }
+            short version = buffer.getShort();
+            if (version != VERSION) {
+                throw new IOException("Unsupported snapshot version: " + version);
+            }
+            Source source = new Source(buffer.getLong(), buffer.getLong());
+            if (expected != null && !expected.equals(source)) {
+                throw new IOException("Snapshot is out of date with its CSV");
+            }
+
+            int checksumOffset = (int) size - CHECKSUM_BYTES;
+            CRC32 crc = new CRC32();
+            crc.update(buffer.duplicate().position(0).limit(checksumOffset));
+            if ((int) crc.getValue() != buffer.getInt(checksumOffset)) {
+                throw new IOException("Snapshot checksum mismatch");
+            }
+
+            try {
+                return readRecords(buffer);
+            } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+                throw new IOException("Corrupt snapshot", e);
+            }
+        }
+    }
+
+    private static List<Participant> readRecords(MappedByteBuffer buffer) {
+        int count = buffer.getInt();
+        int gameCount = buffer.getInt();
+        byte[] scratch = new byte[MAX_STRING_BYTES];
+
+        String[] games = new String[gameCount];
+        for (int i = 0; i < gameCount; i++) {
+            games[i] = readString(buffer, scratch);
+        }
+
+        List<Participant> participants = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String id = readString(buffer, scratch);
+            String name = readString(buffer, scratch);
+            String email = readString(buffer, scratch);
+            String game = games[buffer.getInt()];
+            int skillLevel = buffer.get();
+            int packed = buffer.get();
+            int personalityScore = buffer.get();
+
+            participants.add(new Participant(id, name, email, game, skillLevel,
+                    ROLES[packed & 0x7], personalityScore, PERSONALITY_TYPES[packed >>> 3]));
+        }
+        return participants;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_STRING_BYTES) {
+            throw new IOException("Value too long for snapshot: " + value.substring(0, 32) + "...");
+        }
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(MappedByteBuffer buffer, byte[] scratch) {
+        int length = Short.toUnsignedInt(buffer.getShort());
+        buffer.get(scratch, 0, length);
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+}
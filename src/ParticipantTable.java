@@ -0,0 +1,92 @@
+import java.util.*;
+
+// Struct-of-arrays view of a participant pool. It is built once per formation run so the
+// strategies can work on int index permutations instead of chasing Participant pointers.
+public class ParticipantTable {
+    private final List<Participant> participants;
+    private final int[] skill;
+    private final byte[] role;
+    private final byte[] personality;
+    private final int[] gameId;
+    private final String[] gameNames;
+
+    private ParticipantTable(List<Participant> participants, int[] skill, byte[] role,
+                             byte[] personality, int[] gameId, String[] gameNames) {
+        this.participants = participants;
+        this.skill = skill;
+        this.role = role;
+        this.personality = personality;
+        this.gameId = gameId;
+        this.gameNames = gameNames;
+    }
+
+    public static ParticipantTable of(List<Participant> participants) {
+        List<Participant> rows = new ArrayList<>(participants);
+        int size = rows.size();
+        int[] skill = new int[size];
+        byte[] role = new byte[size];
+        byte[] personality = new byte[size];
+        int[] gameId = new int[size];
+
+        // Dictionary-encode game names in order of first appearance
+        Map<String, Integer> dictionary = new HashMap<>();
+        List<String> gameNames = new ArrayList<>();
+
+        for (int i = 0; i < size; i++) {
+            Participant participant = rows.get(i);
+            skill[i] = participant.getSkillLevel();
+            role[i] = (byte) participant.getPreferredRole().ordinal();
+            personality[i] = (byte) participant.getPersonalityType().ordinal();
+            gameId[i] = dictionary.computeIfAbsent(participant.getPreferredGame(), game -> {
+                gameNames.add(game);
+                return gameNames.size() - 1;
+            });
+        }
+
+        return new ParticipantTable(rows, skill, role, personality, gameId,
+                gameNames.toArray(new String[0]));
+    }
+
+    public int size() { return skill.length; }
+    public int skill(int index) { return skill[index]; }
+    public int role(int index) { return role[index]; }
+    public int personality(int index) { return personality[index]; }
+    public int gameId(int index) { return gameId[index]; }
+    public int gameCount() { return gameNames.length; }
+    public String gameName(int gameId) { return gameNames[gameId]; }
+    public Participant participant(int index) { return participants.get(index); }
+
+    public int teamCountFor(int teamSize) {
+        return (int) Math.ceil((double) size() / teamSize);
+    }
+
+    // Materialises a round-robin deal: position k of the order goes to team k % teamCount
+    public List<Team> toRoundRobinTeams(int[] order, int teamCount, BalanceEvaluator evaluator) {
+        List<Team> teams = createTeams(teamCount, evaluator);
+        for (int k = 0; k < order.length; k++) {
+            teams.get(k % teamCount).addMember(participants.get(order[k]));
+        }
+        return teams;
+    }
+
+    // The teams are scored like the compositions were
+    public List<Team> toTeams(TeamComposition[] compositions) {
+        List<Team> teams = createTeams(compositions.length,
+                compositions.length == 0 ? BalanceEvaluator.DEFAULT : compositions[0].getEvaluator());
+        for (int t = 0; t < compositions.length; t++) {
+            TeamComposition composition = compositions[t];
+            for (int k = 0; k < composition.size(); k++) {
+                teams.get(t).addMember(participants.get(composition.memberAt(k)));
+            }
+        }
+        return teams;
+    }
+
+    private static List<Team> createTeams(int teamCount, BalanceEvaluator evaluator) {
+        List<Team> teams = new ArrayList<>(teamCount);
+        for (int i = 0; i < teamCount; i++) {
+            teams.add(new Team("T" + (i + 1), evaluator));
+        }
+        return teams;
+    }
+}
@@ -5,6 +5,8 @@ public enum Role {
     SUPPORTER("Supporter"),
     COORDINATOR("Coordinator");
 
+    private static final Role[] VALUES = values();
+
     private final String displayName;
 
     Role(String displayName) {
@@ -23,6 +25,24 @@ public enum Role {
         }
     }
 
+    // Case-insensitive match of chars[start, end) against the constant names, without allocating.
+    // Returns null when nothing matches.
+    static Role lookup(char[] chars, int start, int end) {
+        for (Role role : VALUES) {
+            String name = role.name();
+            if (name.length() != end - start) {
+                continue;
+            }
+            int i = 0;
+            while (i < name.length() && Character.toUpperCase(chars[start + i]) == name.charAt(i)) {
+                i++;
+            }
+            if (i == name.length()) {
+                return role;
+            }
+        }
+        return null;
+    }
 
     @Override
     public String toString() {
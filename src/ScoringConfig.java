@@ -0,0 +1,219 @@
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Objects;
+import java.util.Properties;
+
+// Immutable balance-scoring rules: the points for each part of the balance score, the limits
+// behind them, the isBalanced cutoff and how much skill parity counts in the combined score.
+// Load a club's rules from a properties file; any key left out keeps its default:
+//
+//   weight.gameVariety=25          no game above game.maxPerGame
+//   weight.roleDiversity=25        at least min(roles.diversityTarget, team size) roles
+//   weight.personalityMix=50       leaders and thinkers within the personality bounds
+//   weight.personalityPartial=25   ...otherwise
+//   weight.skillParity=0.3         share of skill parity in the combined score (0 to turn off)
+//   game.maxPerGame=2
+//   roles.diversityTarget=3
+//   personality.minLeaders=1
+//   personality.minThinkers=1
+//   personality.maxThinkers=2
+//   balanced.threshold=80
+//
+// Strategies never read this class while scoring; compile() turns it into a BalanceEvaluator.
+public final class ScoringConfig {
+    private static final int MAX_PERSONALITY_BOUND = 100;  // Keeps the evaluator's table small
+
+    private static final ScoringConfig DEFAULTS = new ScoringConfig(25, 25, 50, 25, 0.3,
+            2, 3, 1, 1, 2, 80);
+
+    private final double gameVarietyWeight;
+    private final double roleDiversityWeight;
+    private final double personalityMixWeight;
+    private final double personalityPartialWeight;
+    private final double skillParityWeight;
+    private final int maxPerGame;
+    private final int roleDiversityTarget;
+    private final int minLeaders;
+    private final int minThinkers;
+    private final int maxThinkers;
+    private final double balancedThreshold;
+
+    private ScoringConfig(double gameVarietyWeight, double roleDiversityWeight, double personalityMixWeight,
+                          double personalityPartialWeight, double skillParityWeight, int maxPerGame,
+                          int roleDiversityTarget, int minLeaders, int minThinkers, int maxThinkers,
+                          double balancedThreshold) {
+        this.gameVarietyWeight = gameVarietyWeight;
+        this.roleDiversityWeight = roleDiversityWeight;
+        this.personalityMixWeight = personalityMixWeight;
+        this.personalityPartialWeight = personalityPartialWeight;
+        this.skillParityWeight = skillParityWeight;
+        this.maxPerGame = maxPerGame;
+        this.roleDiversityTarget = roleDiversityTarget;
+        this.minLeaders = minLeaders;
+        this.minThinkers = minThinkers;
+        this.maxThinkers = maxThinkers;
+        this.balancedThreshold = balancedThreshold;
+    }
+
+    public static ScoringConfig defaults() {
+        return DEFAULTS;
+    }
+
+    public static ScoringConfig load(String filePath) throws DataLoadingException, InvalidDataException {
+        Path path = Paths.get(filePath);
+        if (!Files.exists(path)) {
+            throw new DataLoadingException("Scoring file not found: " + filePath);
+        }
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(path)) {
+            properties.load(reader);
+        } catch (IOException e) {
+            throw new DataLoadingException("Error reading scoring file: " + e.getMessage(), e);
+        }
+        return fromProperties(properties);
+    }
+
+    public static ScoringConfig fromProperties(Properties properties) throws InvalidDataException {
+        for (String key : properties.stringPropertyNames()) {
+            if (!isKnown(key)) {
+                throw new InvalidDataException("Unknown scoring setting '" + key + "'");
+            }
+        }
+
+        double gameVariety = weight(properties, "weight.gameVariety", DEFAULTS.gameVarietyWeight);
+        double roleDiversity = weight(properties, "weight.roleDiversity", DEFAULTS.roleDiversityWeight);
+        double personalityMix = weight(properties, "weight.personalityMix", DEFAULTS.personalityMixWeight);
+        double personalityPartial = weight(properties, "weight.personalityPartial", DEFAULTS.personalityPartialWeight);
+        if (personalityPartial > personalityMix) {
+            throw new InvalidDataException("weight.personalityPartial cannot exceed weight.personalityMix");
+        }
+        double skillParity = weight(properties, "weight.skillParity", DEFAULTS.skillParityWeight);
+        if (skillParity > 1) {
+            throw new InvalidDataException("weight.skillParity must be between 0 and 1");
+        }
+
+        int maxPerGame = integer(properties, "game.maxPerGame", DEFAULTS.maxPerGame, 1, Integer.MAX_VALUE);
+        int roleTarget = integer(properties, "roles.diversityTarget", DEFAULTS.roleDiversityTarget,
+                0, Role.values().length);
+        int minLeaders = integer(properties, "personality.minLeaders", DEFAULTS.minLeaders, 0, MAX_PERSONALITY_BOUND);
+        int minThinkers = integer(properties, "personality.minThinkers", DEFAULTS.minThinkers, 0, MAX_PERSONALITY_BOUND);
+        int maxThinkers = integer(properties, "personality.maxThinkers", DEFAULTS.maxThinkers,
+                minThinkers, MAX_PERSONALITY_BOUND);
+        double threshold = number(properties, "balanced.threshold", DEFAULTS.balancedThreshold);
+
+        return new ScoringConfig(gameVariety, roleDiversity, personalityMix, personalityPartial, skillParity,
+                maxPerGame, roleTarget, minLeaders, minThinkers, maxThinkers, threshold);
+    }
+
+    private static boolean isKnown(String key) {
+        switch (key) {
+            case "weight.gameVariety": case "weight.roleDiversity": case "weight.personalityMix":
+            case "weight.personalityPartial": case "weight.skillParity": case "game.maxPerGame":
+            case "roles.diversityTarget": case "personality.minLeaders": case "personality.minThinkers":
+            case "personality.maxThinkers": case "balanced.threshold":
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static double weight(Properties properties, String key, double defaultValue) throws InvalidDataException {
+        double value = number(properties, key, defaultValue);
+        if (value < 0) {
+            throw new InvalidDataException(key + " cannot be negative");
+        }
+        return value;
+    }
+
+    private static double number(Properties properties, String key, double defaultValue) throws InvalidDataException {
+        String value = properties.getProperty(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            double parsed = Double.parseDouble(value.trim());
+            if (Double.isNaN(parsed) || Double.isInfinite(parsed)) {
+                throw new InvalidDataException(key + " must be a finite number");
+            }
+            return parsed;
+        } catch (NumberFormatException e) {
+            throw new InvalidDataException(key + " must be a number", e);
+        }
+    }
+
+    private static int integer(Properties properties, String key, int defaultValue, int min, int max)
+            throws InvalidDataException {
+        String value = properties.getProperty(key);
+        if (value == null) {
+            if (defaultValue < min) {
+                throw new InvalidDataException(key + " must be set to at least " + min);
+            }
+            return defaultValue;
+        }
+        try {
+            int parsed = Integer.parseInt(value.trim());
+            if (parsed < min || parsed > max) {
+                throw new InvalidDataException(key + " must be between " + min + " and " + max);
+            }
+            return parsed;
+        } catch (NumberFormatException e) {
+            throw new InvalidDataException(key + " must be a whole number", e);
+        }
+    }
+
+    public BalanceEvaluator compile() {
+        return new BalanceEvaluator(this);
+    }
+
+    public double getGameVarietyWeight() { return gameVarietyWeight; }
+    public double getRoleDiversityWeight() { return roleDiversityWeight; }
+    public double getPersonalityMixWeight() { return personalityMixWeight; }
+    public double getPersonalityPartialWeight() { return personalityPartialWeight; }
+    public double getSkillParityWeight() { return skillParityWeight; }
+    public int getMaxPerGame() { return maxPerGame; }
+    public int getRoleDiversityTarget() { return roleDiversityTarget; }
+    public int getMinLeaders() { return minLeaders; }
+    public int getMinThinkers() { return minThinkers; }
+    public int getMaxThinkers() { return maxThinkers; }
+    public double getBalancedThreshold() { return balancedThreshold; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ScoringConfig)) {
+            return false;
+        }
+        ScoringConfig other = (ScoringConfig) o;
+        return Double.compare(gameVarietyWeight, other.gameVarietyWeight) == 0
+                && Double.compare(roleDiversityWeight, other.roleDiversityWeight) == 0
+                && Double.compare(personalityMixWeight, other.personalityMixWeight) == 0
+                && Double.compare(personalityPartialWeight, other.personalityPartialWeight) == 0
+                && Double.compare(skillParityWeight, other.skillParityWeight) == 0
+                && maxPerGame == other.maxPerGame
+                && roleDiversityTarget == other.roleDiversityTarget
+                && minLeaders == other.minLeaders
+                && minThinkers == other.minThinkers
+                && maxThinkers == other.maxThinkers
+                && Double.compare(balancedThreshold, other.balancedThreshold) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(gameVarietyWeight, roleDiversityWeight, personalityMixWeight, personalityPartialWeight,
+                skillParityWeight, maxPerGame, roleDiversityTarget, minLeaders, minThinkers, maxThinkers,
+                balancedThreshold);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("games %.4g (max %d per game), roles %.4g (target %d), personality %.4g/%.4g "
+                        + "(leaders >= %d, thinkers %d-%d), balanced at %.4g, skill parity %.4g",
+                gameVarietyWeight, maxPerGame, roleDiversityWeight, roleDiversityTarget, personalityMixWeight,
+                personalityPartialWeight, minLeaders, minThinkers, maxThinkers, balancedThreshold, skillParityWeight);
+    }
+}
@@ -0,0 +1,349 @@
+import java.util.*;
+
+// Evenly matched teams that still meet the game/role/personality rules, in O(n log n):
+//   1. Draft: participants are counting-sorted by personality (leaders, then thinkers, then
+//      the rest) and by skill, highest first, then dealt round by round, each round's
+//      strongest player going to the team furthest below average. Every team gets its share
+//      of leaders and thinkers, and team skill totals stay close.
+//   2. Repair: members of imperfect teams are swapped with same-skill participants of other
+//      teams when that raises the two teams' balance scores. Equal skills keep totals intact.
+//   3. Refine (Karmarkar-Karp style): teams are sorted by average skill and the strongest are
+//      paired with the weakest; each pair makes the one swap that closes its gap the most
+//      without lowering either balance score. Repeated until no pair improves.
+// No step ever lowers a team's balance score, so the combined score in FormationScores only
+// goes up. The result does not depend on a seed.
+public class SkillParityTeamStrategy implements TeamFormationStrategy {
+    private static final int REPAIR_CANDIDATES = 32;  // Same-skill swap partners tried per member
+    private static final int REPAIR_PASSES = 3;
+    private static final int MAX_REFINE_PASSES = 16;
+    private static final int CHECK_INTERVAL_MASK = 1023;  // Deadline and interrupt check every 1024 teams
+    private static final double GAP_EPSILON = 1e-9;
+    private static final int SKILL_LEVELS = Participant.MAX_SKILL_LEVEL - Participant.MIN_SKILL_LEVEL + 1;
+    private static final int[] PERSONALITY_ORDER = {
+            PersonalityType.LEADER.ordinal(),
+            PersonalityType.THINKER.ordinal(),
+            PersonalityType.BALANCED.ordinal()
+    };
+
+    @Override
+    public List<Team> formTeams(List<Participant> participants, int teamSize) {
+        return formTeams(participants, teamSize, FormationOptions.defaults());
+    }
+
+    @Override
+    public List<Team> formTeams(List<Participant> participants, int teamSize, FormationOptions options) {
+        ParticipantTable table = ParticipantTable.of(participants);
+        if (table.size() == 0) {
+            return new ArrayList<>();
+        }
+        long startTime = System.nanoTime();
+        long deadline = options.deadlineFrom(startTime);
+        FormationProgressListener progress = options.getProgressListener();
+
+        Formation formation = new Formation(table, table.teamCountFor(teamSize), teamSize, options.getEvaluator());
+        formation.draft();
+        progress.onProgress(1, 3, formation.averageBalanceScore());
+        formation.repair(deadline);
+        progress.onProgress(2, 3, formation.averageBalanceScore());
+        formation.refine(deadline);
+        progress.onProgress(3, 3, formation.averageBalanceScore());
+
+        TeamMateMetrics.getInstance().recordSearchTime(System.nanoTime() - startTime);
+        return table.toTeams(formation.teams);
+    }
+
+    private static final class Formation {
+        private final ParticipantTable table;
+        private final TeamComposition[] teams;
+        private final int[] teamOf;
+        private final int[] positionOf;
+        private final int[] skillTotals;
+        private final double perfectScore;
+
+        Formation(ParticipantTable table, int teamCount, int teamSize, BalanceEvaluator evaluator) {
+            this.table = table;
+            this.teams = new TeamComposition[teamCount];
+            for (int t = 0; t < teamCount; t++) {
+                teams[t] = new TeamComposition(table, teamSize, evaluator);
+            }
+            this.perfectScore = evaluator.getMaxScore();
+            this.teamOf = new int[table.size()];
+            this.positionOf = new int[table.size()];
+            this.skillTotals = new int[teamCount];
+        }
+
+        // Counting sort by personality, then skill from highest to lowest. Each personality
+        // group is dealt in rounds of at most one player per team; a short round goes to the
+        // smallest teams, so sizes never differ by more than one. Within a round the strongest
+        // player goes to the team furthest below the average skill so far.
+        void draft() {
+            int[] personalityRank = new int[PersonalityType.values().length];
+            for (int rank = 0; rank < PERSONALITY_ORDER.length; rank++) {
+                personalityRank[PERSONALITY_ORDER[rank]] = rank;
+            }
+            int[] starts = new int[PERSONALITY_ORDER.length * SKILL_LEVELS + 1];
+            for (int i = 0; i < table.size(); i++) {
+                starts[bucket(personalityRank, i) + 1]++;
+            }
+            for (int b = 1; b < starts.length; b++) {
+                starts[b] += starts[b - 1];
+            }
+            int[] groupEnds = new int[PERSONALITY_ORDER.length];
+            for (int rank = 0; rank < PERSONALITY_ORDER.length; rank++) {
+                groupEnds[rank] = starts[(rank + 1) * SKILL_LEVELS];
+            }
+            int[] order = new int[table.size()];
+            for (int i = 0; i < table.size(); i++) {
+                order[starts[bucket(personalityRank, i)]++] = i;
+            }
+
+            long skillSum = 0;
+            for (int i = 0; i < table.size(); i++) {
+                skillSum += table.skill(i);
+            }
+            double averageSkill = (double) skillSum / table.size();
+            Comparator<Integer> bySurplus = Comparator.comparingDouble(
+                    (Integer t) -> skillTotals[t] - averageSkill * teams[t].size()).thenComparingInt(t -> t);
+            Comparator<Integer> bySizeThenSurplus = Comparator.comparingInt((Integer t) -> teams[t].size())
+                    .thenComparing(bySurplus);
+
+            Integer[] neediest = new Integer[teams.length];
+            int k = 0;
+            for (int groupEnd : groupEnds) {
+                while (k < groupEnd) {
+                    int round = Math.min(teams.length, groupEnd - k);
+                    for (int t = 0; t < teams.length; t++) {
+                        neediest[t] = t;
+                    }
+                    if (round < teams.length) {
+                        Arrays.sort(neediest, bySizeThenSurplus);
+                    }
+                    Arrays.sort(neediest, 0, round, bySurplus);
+                    for (int r = 0; r < round; r++) {
+                        place(order[k++], neediest[r]);
+                    }
+                }
+            }
+        }
+
+        // Personality rank, then skill from highest to lowest
+        private int bucket(int[] personalityRank, int index) {
+            return personalityRank[table.personality(index)] * SKILL_LEVELS
+                    + (Participant.MAX_SKILL_LEVEL - table.skill(index));
+        }
+
+        private void place(int index, int t) {
+            teamOf[index] = t;
+            positionOf[index] = teams[t].size();
+            teams[t].add(index);
+            skillTotals[t] += table.skill(index);
+        }
+
+        // Skill-neutral swaps for every team below a perfect score. Later passes catch teams
+        // that an earlier repair took a useful member from.
+        void repair(long deadline) {
+            int[][] bySkill = participantsBySkill();
+            int[] cursors = new int[SKILL_LEVELS];
+            for (int pass = 0; pass < REPAIR_PASSES; pass++) {
+                if (!repairPass(bySkill, cursors, deadline)) {
+                    return;
+                }
+            }
+        }
+
+        // False when there is nothing left to repair or time is up
+        private boolean repairPass(int[][] bySkill, int[] cursors, long deadline) {
+            boolean imperfect = false;
+            for (int t = 0; t < teams.length; t++) {
+                if ((t & CHECK_INTERVAL_MASK) == CHECK_INTERVAL_MASK && stopped(deadline)) {
+                    return false;
+                }
+                TeamComposition team = teams[t];
+                for (int i = 0; i < team.size() && team.getBalanceScore() < perfectScore; i++) {
+                    int a = team.memberAt(i);
+                    int[] candidates = bySkill[table.skill(a) - Participant.MIN_SKILL_LEVEL];
+                    int cursorIndex = table.skill(a) - Participant.MIN_SKILL_LEVEL;
+                    // A rolling cursor spreads the partners over the pool instead of always
+                    // raiding the same few teams
+                    for (int tried = 0; tried < Math.min(REPAIR_CANDIDATES, candidates.length); tried++) {
+                        int b = candidates[cursors[cursorIndex]];
+                        cursors[cursorIndex] = (cursors[cursorIndex] + 1) % candidates.length;
+                        if (teamOf[b] != t && !isEquivalent(a, b) && improvesBalance(a, b)) {
+                            break;
+                        }
+                    }
+                }
+                imperfect |= team.getBalanceScore() < perfectScore;
+            }
+            return imperfect;
+        }
+
+        private int[][] participantsBySkill() {
+            int[] counts = new int[SKILL_LEVELS];
+            for (int i = 0; i < table.size(); i++) {
+                counts[table.skill(i) - Participant.MIN_SKILL_LEVEL]++;
+            }
+            int[][] bySkill = new int[SKILL_LEVELS][];
+            for (int s = 0; s < SKILL_LEVELS; s++) {
+                bySkill[s] = new int[counts[s]];
+                counts[s] = 0;
+            }
+            for (int i = 0; i < table.size(); i++) {
+                int s = table.skill(i) - Participant.MIN_SKILL_LEVEL;
+                bySkill[s][counts[s]++] = i;
+            }
+            return bySkill;
+        }
+
+        // Pairs the strongest team with the weakest, the second strongest with the second
+        // weakest and so on, and lets each pair trade towards parity
+        void refine(long deadline) {
+            Integer[] byAverage = new Integer[teams.length];
+            for (int pass = 0; pass < MAX_REFINE_PASSES; pass++) {
+                for (int t = 0; t < teams.length; t++) {
+                    byAverage[t] = t;
+                }
+                Arrays.sort(byAverage, Comparator.comparingDouble(this::averageSkill));
+
+                boolean improved = false;
+                for (int low = 0, high = teams.length - 1; low < high; low++, high--) {
+                    if ((low & CHECK_INTERVAL_MASK) == CHECK_INTERVAL_MASK && stopped(deadline)) {
+                        return;
+                    }
+                    improved |= closeGap(byAverage[high], byAverage[low]);
+                }
+                if (!improved) {
+                    return;
+                }
+            }
+        }
+
+        // Applies the swap between the two teams that leaves the smallest gap in average
+        // skill, among those that keep both balance scores; false when none narrows it
+        private boolean closeGap(int strong, int weak) {
+            TeamComposition strongTeam = teams[strong];
+            TeamComposition weakTeam = teams[weak];
+            double bestGap = Math.abs(averageSkill(strong) - averageSkill(weak)) - GAP_EPSILON;
+            int bestA = -1;
+            int bestB = -1;
+
+            for (int i = 0; i < strongTeam.size(); i++) {
+                int a = strongTeam.memberAt(i);
+                for (int j = 0; j < weakTeam.size(); j++) {
+                    int b = weakTeam.memberAt(j);
+                    int moved = table.skill(a) - table.skill(b);
+                    if (moved <= 0) {
+                        continue;
+                    }
+                    double gap = Math.abs((double) (skillTotals[strong] - moved) / strongTeam.size()
+                            - (double) (skillTotals[weak] + moved) / weakTeam.size());
+                    if (gap < bestGap && keepsBalance(a, b)) {
+                        bestGap = gap;
+                        bestA = a;
+                        bestB = b;
+                    }
+                }
+            }
+            if (bestA < 0) {
+                return false;
+            }
+            swap(bestA, bestB);
+            return true;
+        }
+
+        // Whether swapping a and b leaves neither team with a lower balance score
+        private boolean keepsBalance(int a, int b) {
+            if (!withinLimits(a, b)) {
+                return false;
+            }
+            TeamComposition teamA = teams[teamOf[a]];
+            TeamComposition teamB = teams[teamOf[b]];
+            return teamA.scoreAfterReplace(positionOf[a], b) >= teamA.getBalanceScore()
+                    && teamB.scoreAfterReplace(positionOf[b], a) >= teamB.getBalanceScore();
+        }
+
+        // Swaps a and b if that raises the two teams' combined balance score, else leaves them
+        private boolean improvesBalance(int a, int b) {
+            if (!withinLimits(a, b)) {
+                return false;
+            }
+            TeamComposition teamA = teams[teamOf[a]];
+            TeamComposition teamB = teams[teamOf[b]];
+            double before = teamA.getBalanceScore() + teamB.getBalanceScore();
+            if (teamA.scoreAfterReplace(positionOf[a], b) + teamB.scoreAfterReplace(positionOf[b], a) > before) {
+                swap(a, b);
+                return true;
+            }
+            return false;
+        }
+
+        // Mask test that turns down swaps pushing either team past a hard limit before scoring
+        private boolean withinLimits(int a, int b) {
+            return teams[teamOf[a]].canReplace(positionOf[a], b) && teams[teamOf[b]].canReplace(positionOf[b], a);
+        }
+
+        private void swap(int a, int b) {
+            int teamA = teamOf[a];
+            int teamB = teamOf[b];
+            int positionA = positionOf[a];
+            int positionB = positionOf[b];
+            teams[teamA].replace(positionA, b);
+            teams[teamB].replace(positionB, a);
+            teamOf[a] = teamB;
+            teamOf[b] = teamA;
+            positionOf[a] = positionB;
+            positionOf[b] = positionA;
+            int moved = table.skill(a) - table.skill(b);
+            skillTotals[teamA] -= moved;
+            skillTotals[teamB] += moved;
+        }
+
+        private boolean isEquivalent(int a, int b) {
+            return table.personality(a) == table.personality(b)
+                    && table.role(a) == table.role(b)
+                    && table.gameId(a) == table.gameId(b);
+        }
+
+        private double averageSkill(int t) {
+            return teams[t].size() == 0 ? 0.0 : (double) skillTotals[t] / teams[t].size();
+        }
+
+        double averageBalanceScore() {
+            return BalancedTeamStrategy.calculateOverallBalanceScore(teams);
+        }
+
+        private static boolean stopped(long deadline) {
+            return FormationOptions.isPast(deadline) || Thread.currentThread().isInterrupted();
+        }
+    }
+
+    // Already O(n log n), so there is no parallel search; TeamBuilder's parallel path runs the
+    // same formation with the caller's options (scoring rules, budget, progress)
+    @Override
+    public List<Team> formTeamsParallel(List<Participant> participants, int teamSize) {
+        return formTeams(participants, teamSize, FormationOptions.defaults());
+    }
+
+    @Override
+    public List<Team> formTeamsParallel(List<Participant> participants, int teamSize, FormationOptions options) {
+        return formTeams(participants, teamSize, options);
+    }
+
+    // Parity is across all teams; parts formed separately would not be matched to each other
+    @Override
+    public boolean canPartition() {
+        return false;
+    }
+
+    @Override
+    public String getStrategyName() {
+        return "Skill Parity Strategy";
+    }
+
+    @Override
+    public String getStrategyDescription() {
+        return "Drafts by personality and skill, giving each round's strongest player to the team furthest "
+                + "below average, then repairs balance with same-skill swaps and evens out team skill by "
+                + "pairing the strongest teams with the weakest";
+    }
+}
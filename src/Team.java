@@ -2,28 +2,42 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 public class Team extends Person implements Formattable {
+    private static final int ROLE_COUNT = Role.values().length;
+    private static final int PERSONALITY_COUNT = PersonalityType.values().length;
+
+    private final BalanceEvaluator evaluator;
     private final List<Participant> members;
     private final Map<String, Integer> gameDistribution;
-    private final Map<Role, Integer> roleDistribution;
-    private final Map<PersonalityType, Integer> personalityDistribution;
+    // Indexed by enum ordinal
+    private final int[] roleCounts;
+    private final int[] personalityCounts;
+    private int gamesOverCap;
+    private int distinctRoles;
+    private int skillSum;
 
     public Team(String teamId) {
+        this(teamId, BalanceEvaluator.DEFAULT);
+    }
+
+    // Scored by the given club rules; see ScoringConfig
+    public Team(String teamId, BalanceEvaluator evaluator) {
         super(teamId, "Team-" + teamId);  // Team name generated from ID
+        this.evaluator = evaluator;
         this.members = new ArrayList<>();
         this.gameDistribution = new HashMap<>();
-        this.roleDistribution = new HashMap<>();
-        this.personalityDistribution = new HashMap<>();
+        this.roleCounts = new int[ROLE_COUNT];
+        this.personalityCounts = new int[PERSONALITY_COUNT];
     }
 
     // Implementing Formattable interface methods
     @Override
     public String toCSVFormat() {
         String memberString = members.stream()
-                .map(p -> String.format("%s(%s)", p.getName(), p.getPreferredRole()))
-                .reduce((a, b) -> a + ";" + b)
-                .orElse("");
+                .map(p -> p.getName() + "(" + p.getPreferredRole() + ")")
+                .collect(Collectors.joining(";"));
 
         // Use getId() instead of teamId field
         return String.format("%s,%d,%.2f,%.1f,\"%s\"",
@@ -59,60 +73,128 @@ public class Team extends Person implements Formattable {
             return false;
         }
         members.add(participant);
-        updateDistributions(participant);
+        updateDistributions(participant, 1);
         return true;
     }
 
-    private void updateDistributions(Participant participant) {
-        gameDistribution.merge(participant.getPreferredGame(), 1, Integer::sum);
-        roleDistribution.merge(participant.getPreferredRole(), 1, Integer::sum);
-        personalityDistribution.merge(participant.getPersonalityType(), 1, Integer::sum);
+    public boolean removeMember(Participant participant) {
+        if (!members.remove(participant)) {
+            return false;
+        }
+        updateDistributions(participant, -1);
+        return true;
+    }
+
+    // Keeps the running counters in step with the member list so scoring never rescans it
+    private void updateDistributions(Participant participant, int change) {
+        int gameCount = gameDistribution.getOrDefault(participant.getPreferredGame(), 0);
+        int newGameCount = gameCount + change;
+        if (newGameCount > 0) {
+            gameDistribution.put(participant.getPreferredGame(), newGameCount);
+        } else {
+            gameDistribution.remove(participant.getPreferredGame());
+        }
+        int maxPerGame = evaluator.getMaxPerGame();
+        if (gameCount <= maxPerGame && newGameCount > maxPerGame) {
+            gamesOverCap++;
+        } else if (gameCount > maxPerGame && newGameCount <= maxPerGame) {
+            gamesOverCap--;
+        }
+
+        int role = participant.getPreferredRole().ordinal();
+        if (roleCounts[role] == 0 && change > 0) {
+            distinctRoles++;
+        }
+        roleCounts[role] += change;
+        if (roleCounts[role] == 0 && change < 0) {
+            distinctRoles--;
+        }
+
+        personalityCounts[participant.getPersonalityType().ordinal()] += change;
+        skillSum += change * participant.getSkillLevel();
     }
 
     public double getAverageSkill() {
-        return members.stream()
-                .mapToInt(Participant::getSkillLevel)
-                .average()
-                .orElse(0.0);
+        return members.isEmpty() ? 0.0 : (double) skillSum / members.size();
     }
 
     public int getTeamSize() {
         return members.size();
     }
 
+    // O(1): every input is a running counter maintained by addMember/removeMember
     public double getBalanceScore() {
-        double score = 0.0;
-        boolean hasGameVariety = gameDistribution.values().stream().allMatch(count -> count <= 2);
-        boolean hasRoleDiversity = roleDistribution.size() >= Math.min(3, members.size());
+        return evaluator.score(members.size(), gamesOverCap, distinctRoles,
+                personalityCounts[PersonalityType.LEADER.ordinal()],
+                personalityCounts[PersonalityType.THINKER.ordinal()]);
+    }
 
-        int leaders = personalityDistribution.getOrDefault(PersonalityType.LEADER, 0);
-        int thinkers = personalityDistribution.getOrDefault(PersonalityType.THINKER, 0);
-        boolean hasGoodPersonalityMix = leaders >= 1 && thinkers >= 1 && thinkers <= 2;
+    // Score this team would have with 'leaving' swapped for 'joining' (either may be null),
+    // worked out from the counters without changing the team
+    double scoreAfter(Participant leaving, Participant joining) {
+        int memberCount = members.size();
+        int maxPerGame = evaluator.getMaxPerGame();
+        int overCap = gamesOverCap;
+        int roles = distinctRoles;
+        int[] personalities = {
+                personalityCounts[PersonalityType.LEADER.ordinal()],
+                personalityCounts[PersonalityType.THINKER.ordinal()]
+        };
+
+        boolean sameGame = leaving != null && joining != null
+                && leaving.getPreferredGame().equals(joining.getPreferredGame());
+        boolean sameRole = leaving != null && joining != null
+                && leaving.getPreferredRole() == joining.getPreferredRole();
+
+        if (leaving != null) {
+            memberCount--;
+            if (!sameGame && gameDistribution.getOrDefault(leaving.getPreferredGame(), 0) == maxPerGame + 1) {
+                overCap--;
+            }
+            if (!sameRole && roleCounts[leaving.getPreferredRole().ordinal()] == 1) {
+                roles--;
+            }
+            adjustPersonality(personalities, leaving.getPersonalityType(), -1);
+        }
+        if (joining != null) {
+            memberCount++;
+            if (!sameGame && gameDistribution.getOrDefault(joining.getPreferredGame(), 0) == maxPerGame) {
+                overCap++;
+            }
+            if (!sameRole && roleCounts[joining.getPreferredRole().ordinal()] == 0) {
+                roles++;
+            }
+            adjustPersonality(personalities, joining.getPersonalityType(), 1);
+        }
 
-        score += hasGameVariety ? 25 : 0;
-        score += hasRoleDiversity ? 25 : 0;
-        score += hasGoodPersonalityMix ? 50 : 25;
+        return evaluator.score(memberCount, overCap, roles, personalities[0], personalities[1]);
+    }
 
-        return score;
+    private static void adjustPersonality(int[] leadersAndThinkers, PersonalityType type, int change) {
+        if (type == PersonalityType.LEADER) {
+            leadersAndThinkers[0] += change;
+        } else if (type == PersonalityType.THINKER) {
+            leadersAndThinkers[1] += change;
+        }
     }
 
     public boolean isBalanced() {
-        return getBalanceScore() >= 80.0;
+        return evaluator.isBalanced(getBalanceScore());
     }
 
     public List<String> getBalanceIssues() {
         List<String> issues = new ArrayList<>();
-        if (gameDistribution.values().stream().anyMatch(count -> count > 2)) {
+        if (gamesOverCap > 0) {
             issues.add("Too many players from same game: " + gameDistribution);
         }
-        if (roleDistribution.size() < Math.min(3, members.size())) {
-            issues.add("Insufficient role diversity: " + roleDistribution);
+        if (evaluator.lacksRoleDiversity(members.size(), distinctRoles)) {
+            issues.add("Insufficient role diversity: " + getRoleDistribution());
         }
 
-        int leaders = personalityDistribution.getOrDefault(PersonalityType.LEADER, 0);
-        int thinkers = personalityDistribution.getOrDefault(PersonalityType.THINKER, 0);
-        if (leaders < 1 || thinkers < 1 || thinkers > 2) {
-            issues.add("Poor personality mix: " + personalityDistribution);
+        int leaders = personalityCounts[PersonalityType.LEADER.ordinal()];
+        int thinkers = personalityCounts[PersonalityType.THINKER.ordinal()];
+        if (evaluator.hasPoorPersonalityMix(leaders, thinkers)) {
+            issues.add("Poor personality mix: " + getPersonalityDistribution());
         }
         return issues;
     }
@@ -120,11 +202,25 @@ public class Team extends Person implements Formattable {
     // Getters
     public String getTeamId() { return getId(); }
 
+    BalanceEvaluator getEvaluator() { return evaluator; }
     public List<Participant> getMembers() { return new ArrayList<>(members); }
+    public boolean hasMember(Participant participant) { return members.contains(participant); }
+    // Indexed access for streaming callers that should not copy the member list
+    Participant getMember(int index) { return members.get(index); }
     public Map<String, Integer> getGameDistribution() { return new HashMap<>(gameDistribution); }
-    public Map<Role, Integer> getRoleDistribution() { return new HashMap<>(roleDistribution); }
+    public Map<Role, Integer> getRoleDistribution() { return toMap(Role.values(), roleCounts); }
     public Map<PersonalityType, Integer> getPersonalityDistribution() {
-        return new HashMap<>(personalityDistribution);
+        return toMap(PersonalityType.values(), personalityCounts);
+    }
+
+    private static <E extends Enum<E>> Map<E, Integer> toMap(E[] keys, int[] counts) {
+        Map<E, Integer> map = new HashMap<>();
+        for (E key : keys) {
+            if (counts[key.ordinal()] > 0) {
+                map.put(key, counts[key.ordinal()]);
+            }
+        }
+        return map;
     }
 
     public String getDetailedInfo() {
@@ -135,8 +231,8 @@ public class Team extends Person implements Formattable {
         sb.append("  Average Skill: ").append(String.format("%.2f", getAverageSkill())).append("\n");
         sb.append("  Balance Score: ").append(String.format("%.1f", getBalanceScore())).append("\n");
         sb.append("  Games: ").append(gameDistribution).append("\n");
-        sb.append("  Roles: ").append(roleDistribution).append("\n");
-        sb.append("  Personalities: ").append(personalityDistribution).append("\n");
+        sb.append("  Roles: ").append(getRoleDistribution()).append("\n");
+        sb.append("  Personalities: ").append(getPersonalityDistribution()).append("\n");
 
         List<String> issues = getBalanceIssues();
         if (!issues.isEmpty()) {
@@ -1,77 +1,292 @@
+import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 public class TeamBuilder {
+    // Large pools are split into partitions of about this many participants. Fixed rather
+    // than derived from the core count, so a seeded run gives the same teams on any machine.
+    private static final int PARTITION_SIZE = 500;
+    private static final int MAX_REPAIR_SWAPS = 3;
+    private static final int REPAIR_CANDIDATE_TEAMS = 64;
+
     private TeamFormationStrategy strategy;
-    private final ExecutorService parallelExecutor;
+    private FormationOptions options = FormationOptions.defaults();
+    private final FormationCache cache = new FormationCache(FormationCache.DEFAULT_CAPACITY);
+    private final TeamMateMetrics metrics = TeamMateMetrics.getInstance();
+    // Position of each member's team in the list last given to addParticipant or
+    // removeParticipant, so a dropout's team is found without searching every team.
+    // Entries are checked against the list before use and rebuilt when they are stale.
+    private List<Team> indexedTeams;
+    private final Map<Participant, Integer> teamPositions = new HashMap<>();
 
     public TeamBuilder() {
-        this.strategy = new BalancedTeamStrategy();
-        this.parallelExecutor = Executors.newWorkStealingPool();
+        this(new BalancedTeamStrategy());
     }
 
     public TeamBuilder(TeamFormationStrategy strategy) {
         this.strategy = strategy;
-        this.parallelExecutor = Executors.newWorkStealingPool();
     }
 
     // Existing sequential method
     public List<Team> formTeams(List<Participant> participants, int teamSize) {
-        return strategy.formTeams(participants, teamSize);
+        long startTime = System.nanoTime();
+        List<Team> teams = formCached(participants, teamSize, false,
+                () -> strategy.formTeams(participants, teamSize, options));
+        metrics.recordFormTeams(System.nanoTime() - startTime, FormationScores.averageBalanceScore(teams));
+        return teams;
     }
 
     // New parallel method
     public List<Team> formTeamsParallel(List<Participant> participants, int teamSize) {
-        if (participants.size() > 50) {
-            System.out.println("Using parallel processing for large dataset (" + participants.size() + " participants)");
-            return formTeamsParallelLarge(participants, teamSize);
-        } else {
-            System.out.println("Using optimized parallel processing");
-            return formTeamsParallelOptimized(participants, teamSize);
+        long startTime = System.nanoTime();
+        List<Team> teams = formCached(participants, teamSize, true, () -> {
+            if (participants.size() > 50 && strategy.canPartition()) {
+                System.out.println("Using parallel processing for large dataset (" + participants.size() + " participants)");
+                return formTeamsParallelLarge(participants, teamSize);
+            } else {
+                System.out.println("Using optimized parallel processing");
+                return formTeamsParallelOptimized(participants, teamSize);
+            }
+        });
+        metrics.recordFormTeamsParallel(System.nanoTime() - startTime, FormationScores.averageBalanceScore(teams));
+        return teams;
+    }
+
+    // Same pool (in any order), team size, strategy and options as a recent run: reuse its
+    // result. Results of interrupted runs are not cached, as they may be incomplete searches.
+    private List<Team> formCached(List<Participant> participants, int teamSize, boolean parallel,
+                                  Supplier<List<Team>> formation) {
+        FormationCache.Key key = FormationCache.keyFor(participants, teamSize,
+                strategy.getStrategyName(), parallel, options);
+        List<Team> cached = cache.get(key, participants);
+        if (cached != null) {
+            System.out.println("Reusing cached formation for an unchanged participant pool");
+            metrics.recordCacheHit();
+            return cached;
         }
+
+        metrics.recordCacheMiss();
+        List<Team> teams = formation.get();
+        if (!Thread.currentThread().isInterrupted()) {
+            cache.put(key, teams);
+        }
+        return teams;
+    }
+
+    public void clearCache() {
+        cache.clear();
     }
 
     private List<Team> formTeamsParallelLarge(List<Participant> participants, int teamSize) {
-        int availableProcessors = Runtime.getRuntime().availableProcessors();
-        int batchSize = Math.max(10, participants.size() / availableProcessors);
+        // Whole teams per partition, so only the last partition can end with a short team
+        int partitionSize = Math.max(teamSize, PARTITION_SIZE / teamSize * teamSize);
+        long seed = options.resolveSeed();
+        long deadline = options.deadlineFrom(System.nanoTime());
 
-        List<Callable<List<Team>>> tasks = new ArrayList<>();
+        // Progress is reported per finished partition; the partitions' own searches stay quiet
+        // unless there is only one
+        FormationProgressListener progress = options.getProgressListener();
+        int partitionCount = (participants.size() + partitionSize - 1) / partitionSize;
+        AtomicInteger partitionsDone = new AtomicInteger();
+        AtomicInteger teamsDone = new AtomicInteger();
+        DoubleAdder scoreTotal = new DoubleAdder();
 
-        // Create multiple formation tasks
-        for (int i = 0; i < availableProcessors; i++) {
-            final int start = i * batchSize;
-            final int end = Math.min(start + batchSize, participants.size());
+        List<Callable<List<Team>>> tasks = new ArrayList<>();
 
-            if (start >= participants.size()) break;
+        // Create one formation task per partition, each with its own seed
+        for (int start = 0, partition = 0; start < participants.size(); start += partitionSize, partition++) {
+            final int end = Math.min(start + partitionSize, participants.size());
+            final List<Participant> batch = new ArrayList<>(participants.subList(start, end));
+            final FormationOptions partitionOptions = options.withSeed(FormationOptions.mix(seed, partition))
+                    .withProgressListener(partitionCount == 1 ? progress : FormationProgressListener.NONE);
 
             tasks.add(() -> {
-                List<Participant> batch = participants.subList(start, end);
-                return strategy.formTeams(new ArrayList<>(batch), teamSize);
+                List<Team> teams = strategy.formTeams(batch, teamSize, remainingBudget(partitionOptions, deadline));
+                for (Team team : teams) {
+                    scoreTotal.add(team.getBalanceScore());
+                }
+                int formed = teamsDone.addAndGet(teams.size());
+                progress.onProgress(partitionsDone.incrementAndGet(), partitionCount,
+                        scoreTotal.sum() / Math.max(1, formed));
+                return teams;
             });
         }
 
         try {
-            // Execute all tasks in parallel
-            List<Future<List<Team>>> futures = parallelExecutor.invokeAll(tasks);
-
-            // Combine results
+            // Execute all tasks in parallel on the shared compute pool; a failure cancels the rest
             List<Team> allTeams = new ArrayList<>();
-            for (Future<List<Team>> future : futures) {
-                allTeams.addAll(future.get());
+            for (List<Team> partitionTeams : AppExecutors.invokeAll(tasks)) {
+                allTeams.addAll(partitionTeams);
             }
 
             return allTeams;
 
-        } catch (InterruptedException | ExecutionException e) {
+        } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
-            throw new RuntimeException("Parallel team formation failed", e);
+            throw new RuntimeException("Parallel team formation interrupted", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Parallel team formation failed", e.getCause());
+        }
+    }
+
+    // The budget covers the whole call, so partitions that wait in the queue get what is left
+    private static FormationOptions remainingBudget(FormationOptions options, long deadline) {
+        if (deadline == FormationOptions.NO_DEADLINE) {
+            return options;
         }
+        return options.withTimeBudget(Duration.ofNanos(Math.max(1, deadline - System.nanoTime())));
     }
 
     private List<Team> formTeamsParallelOptimized(List<Participant> participants, int teamSize) {
         // Use parallel streams for smaller datasets
-        return strategy.formTeamsParallel(participants, teamSize);
+        return strategy.formTeamsParallel(participants, teamSize, options);
+    }
+
+    // Incremental maintenance: late sign-ups and dropouts adjust the existing teams in place
+    // instead of re-running formation, so everyone else keeps their team.
+
+    // Puts the newcomer into the non-full team whose balance score gains the most (ties go to
+    // the smaller, then the earlier team). Opens a new team when every team is full.
+    // Scoring a candidate is O(1), so this is one pass over the teams, and only the chosen
+    // team is modified.
+    public Team addParticipant(List<Team> teams, Participant participant, int teamSize) {
+        int bestIndex = -1;
+        double bestGain = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < teams.size(); i++) {
+            Team team = teams.get(i);
+            if (team.getTeamSize() >= teamSize) {
+                continue;
+            }
+            double gain = team.scoreAfter(null, participant) - team.getBalanceScore();
+            if (gain > bestGain || (gain == bestGain && team.getTeamSize() < teams.get(bestIndex).getTeamSize())) {
+                bestIndex = i;
+                bestGain = gain;
+            }
+        }
+
+        if (bestIndex < 0) {
+            teams.add(new Team(nextTeamId(teams), options.getEvaluator()));
+            bestIndex = teams.size() - 1;
+        }
+        Team best = teams.get(bestIndex);
+        best.addMember(participant);
+        if (indexedTeams == teams) {
+            teamPositions.put(participant, bestIndex);
+        }
+        return best;
+    }
+
+    // Takes the participant out of their team, then repairs that team with up to
+    // MAX_REPAIR_SWAPS member swaps, each the single swap with one of the next
+    // REPAIR_CANDIDATE_TEAMS teams that raises the two teams' combined score the most.
+    // Swap candidates are scored from the team counters, and only the two teams in a swap
+    // are modified. A team left empty is dropped. Returns false when the participant is not
+    // in any team.
+    // The team is found through the position index, so apart from the first call on a list
+    // (or one changed elsewhere since), which indexes every member once, the cost depends on
+    // the team size and the candidate window, not on the pool size.
+    public boolean removeParticipant(List<Team> teams, Participant participant) {
+        int teamIndex = teamIndexOf(teams, participant);
+        if (teamIndex < 0) {
+            return false;
+        }
+        Team team = teams.get(teamIndex);
+
+        team.removeMember(participant);
+        teamPositions.remove(participant);
+        if (team.getTeamSize() == 0) {
+            teams.remove(teamIndex);
+            indexedTeams = null;  // Later teams moved up; reindex on the next call
+            return true;
+        }
+
+        double perfectScore = team.getEvaluator().getMaxScore();
+        for (int swap = 0; swap < MAX_REPAIR_SWAPS && team.getBalanceScore() < perfectScore; swap++) {
+            if (!applyBestSwap(teams, teamIndex)) {
+                break;
+            }
+        }
+        return true;
+    }
+
+    // The participant's team position, or -1. Trusts the index only when the entry still
+    // matches the list; otherwise indexes the list afresh and looks again.
+    private int teamIndexOf(List<Team> teams, Participant participant) {
+        if (indexedTeams == teams) {
+            Integer position = teamPositions.get(participant);
+            if (position != null && position < teams.size() && teams.get(position).hasMember(participant)) {
+                return position;
+            }
+        }
+        indexedTeams = teams;
+        teamPositions.clear();
+        for (int i = 0; i < teams.size(); i++) {
+            Team team = teams.get(i);
+            for (int j = 0; j < team.getTeamSize(); j++) {
+                teamPositions.put(team.getMember(j), i);
+            }
+        }
+        Integer position = teamPositions.get(participant);
+        return position == null ? -1 : position;
+    }
+
+    private boolean applyBestSwap(List<Team> teams, int teamIndex) {
+        Team team = teams.get(teamIndex);
+        double teamScore = team.getBalanceScore();
+        double bestGain = 0.0;
+        int bestOther = -1;
+        Participant bestOut = null;
+        Participant bestIn = null;
+
+        int candidates = Math.min(REPAIR_CANDIDATE_TEAMS, teams.size() - 1);
+        for (int k = 1; k <= candidates; k++) {
+            int otherIndex = (teamIndex + k) % teams.size();
+            Team other = teams.get(otherIndex);
+            double otherScore = other.getBalanceScore();
+            for (int i = 0; i < other.getTeamSize(); i++) {
+                Participant incoming = other.getMember(i);
+                for (int j = 0; j < team.getTeamSize(); j++) {
+                    Participant outgoing = team.getMember(j);
+                    double gain = team.scoreAfter(outgoing, incoming) - teamScore
+                            + other.scoreAfter(incoming, outgoing) - otherScore;
+                    if (gain > bestGain) {
+                        bestGain = gain;
+                        bestOther = otherIndex;
+                        bestOut = outgoing;
+                        bestIn = incoming;
+                    }
+                }
+            }
+        }
+
+        if (bestOther < 0) {
+            return false;
+        }
+        Team other = teams.get(bestOther);
+        team.removeMember(bestOut);
+        other.removeMember(bestIn);
+        team.addMember(bestIn);
+        other.addMember(bestOut);
+        teamPositions.put(bestIn, teamIndex);
+        teamPositions.put(bestOut, bestOther);
+        return true;
+    }
+
+    // First "T<n>" not already taken, matching the names formation hands out
+    private static String nextTeamId(List<Team> teams) {
+        Set<String> taken = new HashSet<>();
+        for (Team team : teams) {
+            taken.add(team.getId());
+        }
+        int n = teams.size() + 1;
+        while (taken.contains("T" + n)) {
+            n++;
+        }
+        return "T" + n;
     }
 
     // Rest of existing methods...
@@ -82,6 +297,43 @@ public class TeamBuilder {
 
     public void setStrategy(TeamFormationStrategy strategy) {
         this.strategy = strategy;
+        cache.clear();  // Differently configured strategies may share a name
+    }
+
+    // Makes every following formation reproducible; see FormationOptions.withSeed
+    public void setSeed(long seed) {
+        this.options = options.withSeed(seed);
+    }
+
+    public void clearSeed() {
+        this.options = options.withoutSeed();
+    }
+
+    // Return the best formation found within the budget; see FormationOptions.withTimeBudget
+    public void setTimeBudget(Duration budget) {
+        this.options = options.withTimeBudget(budget);
+    }
+
+    public void setTargetScore(double targetScore) {
+        this.options = options.withTargetScore(targetScore);
+    }
+
+    // Reports progress of every following formation; pass null to stop reporting
+    public void setProgressListener(FormationProgressListener listener) {
+        this.options = options.withProgressListener(listener);
+    }
+
+    // Scores every following formation by a club's own rules; see ScoringConfig
+    public void setScoring(ScoringConfig config) {
+        this.options = options.withScoring(config);
+    }
+
+    public void setOptions(FormationOptions options) {
+        this.options = options;
+    }
+
+    public FormationOptions getOptions() {
+        return options;
     }
 
     public String getCurrentStrategyInfo() {
@@ -95,7 +347,8 @@ public class TeamBuilder {
         return new TeamBuilder(new BalancedTeamStrategy());
     }
 
+    // Formation runs on the shared AppExecutors.compute() pool, which the application shuts
+    // down; kept so existing callers do not break
     public void shutdown() {
-        parallelExecutor.shutdown();
     }
 }
\ No newline at end of file
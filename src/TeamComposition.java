@@ -0,0 +1,228 @@
+import java.util.Arrays;
+
+// Mutable team made of ParticipantTable indexes. Keeps the same running counters as Team,
+// so a strategy can score candidate teams without creating Team objects.
+//
+// Scores come from the BalanceEvaluator's table. Its hard limits (players per game, thinkers)
+// are also kept as bits: one bit per game that is already at its cap and one per role present.
+// canAccept and canReplace are then a couple of mask tests, so strategies can turn down a move
+// that would break a limit before scoring it.
+public class TeamComposition {
+    private static final int ROLE_COUNT = Role.values().length;
+    private static final int PERSONALITY_COUNT = PersonalityType.values().length;
+    private static final int LEADER = PersonalityType.LEADER.ordinal();
+    private static final int THINKER = PersonalityType.THINKER.ordinal();
+    private static final int MAX_MASKED_GAMES = Long.SIZE;  // One bit of gamesAtCap per game
+    private static final int MAX_COUNTED_MEMBERS = Byte.MAX_VALUE;  // Per-game counters are bytes
+
+    private final ParticipantTable table;
+    private final BalanceEvaluator evaluator;
+    private final int maxPerGame;
+    private final int maxThinkers;
+    private int[] members;
+    private int size;
+    private final int[] roleCounts = new int[ROLE_COUNT];
+    private final int[] personalityCounts = new int[PERSONALITY_COUNT];
+    // Per-game counters, or null when the pool has too many games for the mask (or the team
+    // grew past what a byte counts); every game query then scans the members instead
+    private byte[] gameCounts;
+    private long gamesAtCap;  // Bit g: game g already has maxPerGame players here
+    private int roleMask;  // Bit r: role r is present
+    private int gamesOverCap;
+    private int skillSum;
+
+    public TeamComposition(ParticipantTable table, int capacity) {
+        this(table, capacity, BalanceEvaluator.DEFAULT);
+    }
+
+    public TeamComposition(ParticipantTable table, int capacity, BalanceEvaluator evaluator) {
+        this.table = table;
+        this.evaluator = evaluator;
+        this.maxPerGame = evaluator.getMaxPerGame();
+        this.maxThinkers = evaluator.getMaxThinkers();
+        this.members = new int[Math.max(1, capacity)];
+        if (table.gameCount() <= MAX_MASKED_GAMES && capacity <= MAX_COUNTED_MEMBERS) {
+            gameCounts = new byte[table.gameCount()];
+        }
+    }
+
+    public void clear() {
+        size = 0;
+        Arrays.fill(roleCounts, 0);
+        Arrays.fill(personalityCounts, 0);
+        if (gameCounts != null) {
+            Arrays.fill(gameCounts, (byte) 0);
+        }
+        gamesAtCap = 0;
+        roleMask = 0;
+        gamesOverCap = 0;
+        skillSum = 0;
+    }
+
+    public void add(int index) {
+        if (size == members.length) {
+            members = Arrays.copyOf(members, size * 2);
+        }
+        if (size == MAX_COUNTED_MEMBERS) {
+            gameCounts = null;  // Counts could overflow; fall back to scanning
+        }
+        members[size++] = index;
+        countIn(index);
+    }
+
+    public boolean remove(int index) {
+        for (int k = 0; k < size; k++) {
+            if (members[k] == index) {
+                members[k] = members[--size];
+                countOut(index);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Swaps the member at a position for another participant, keeping positions stable
+    public void replace(int position, int index) {
+        int previous = members[position];
+        int last = members[--size];
+        members[position] = last;
+        countOut(previous);
+
+        members[size++] = last;
+        members[position] = index;
+        countIn(index);
+    }
+
+    public int size() { return size; }
+    public int memberAt(int position) { return members[position]; }
+    public int getSkillSum() { return skillSum; }
+    public BalanceEvaluator getEvaluator() { return evaluator; }
+
+    public double getBalanceScore() {
+        return evaluator.score(signature());
+    }
+
+    public int signature() {
+        return evaluator.signature(size, gamesOverCap, Integer.bitCount(roleMask),
+                personalityCounts[LEADER], personalityCounts[THINKER]);
+    }
+
+    // Score the team would have with the member at a position swapped for the participant,
+    // worked out from the counters without changing the team
+    public double scoreAfterReplace(int position, int index) {
+        int leaving = members[position];
+        int overCap = gamesOverCap;
+        int leavingGame = table.gameId(leaving);
+        int joiningGame = table.gameId(index);
+        if (leavingGame != joiningGame) {
+            if (gameCount(leavingGame) == maxPerGame + 1) {
+                overCap--;
+            }
+            if (gameCount(joiningGame) == maxPerGame) {
+                overCap++;
+            }
+        }
+
+        int roles = Integer.bitCount(roleMask);
+        int leavingRole = table.role(leaving);
+        int joiningRole = table.role(index);
+        if (leavingRole != joiningRole) {
+            if (roleCounts[leavingRole] == 1) {
+                roles--;
+            }
+            if (roleCounts[joiningRole] == 0) {
+                roles++;
+            }
+        }
+
+        int leaders = personalityCounts[LEADER];
+        int thinkers = personalityCounts[THINKER];
+        int leavingPersonality = table.personality(leaving);
+        int joiningPersonality = table.personality(index);
+        leaders += (joiningPersonality == LEADER ? 1 : 0) - (leavingPersonality == LEADER ? 1 : 0);
+        thinkers += (joiningPersonality == THINKER ? 1 : 0) - (leavingPersonality == THINKER ? 1 : 0);
+        return evaluator.score(size, overCap, roles, leaders, thinkers);
+    }
+
+    // Whether adding the participant keeps this team within the hard limits: no game past
+    // maxPerGame and no more than maxThinkers thinkers. Role diversity and the leader
+    // are minimums, which an addition can only help.
+    public boolean canAccept(int index) {
+        if (table.personality(index) == THINKER && personalityCounts[THINKER] >= maxThinkers) {
+            return false;
+        }
+        return !atGameCap(table.gameId(index));
+    }
+
+    // canAccept for swapping the member at a position for the participant. A swap within
+    // the same game, or of a thinker for a thinker, changes no count and is always allowed.
+    public boolean canReplace(int position, int index) {
+        int leaving = members[position];
+        if (table.personality(index) == THINKER && table.personality(leaving) != THINKER
+                && personalityCounts[THINKER] >= maxThinkers) {
+            return false;
+        }
+        int game = table.gameId(index);
+        return game == table.gameId(leaving) || !atGameCap(game);
+    }
+
+    // Whether the participant would bring a role the team does not have yet
+    public boolean addsRole(int index) {
+        return (roleMask & (1 << table.role(index))) == 0;
+    }
+
+    private int gameCount(int gameId) {
+        return gameCounts != null ? gameCounts[gameId] : countGame(gameId);
+    }
+
+    private boolean atGameCap(int gameId) {
+        return gameCounts != null
+                ? (gamesAtCap & (1L << gameId)) != 0
+                : countGame(gameId) >= maxPerGame;
+    }
+
+    // Called after index has been stored in members
+    private void countIn(int index) {
+        int gameId = table.gameId(index);
+        int games = gameCounts != null ? ++gameCounts[gameId] : countGame(gameId);
+        if (games == maxPerGame) {
+            gamesAtCap |= 1L << gameId;
+        } else if (games == maxPerGame + 1) {
+            gamesOverCap++;
+        }
+        int role = table.role(index);
+        if (roleCounts[role]++ == 0) {
+            roleMask |= 1 << role;
+        }
+        personalityCounts[table.personality(index)]++;
+        skillSum += table.skill(index);
+    }
+
+    // Called after index has been dropped from members
+    private void countOut(int index) {
+        int gameId = table.gameId(index);
+        int games = gameCounts != null ? --gameCounts[gameId] : countGame(gameId);
+        if (games == maxPerGame) {
+            gamesOverCap--;
+        } else if (games == maxPerGame - 1) {
+            gamesAtCap &= ~(1L << gameId);
+        }
+        int role = table.role(index);
+        if (--roleCounts[role] == 0) {
+            roleMask &= ~(1 << role);
+        }
+        personalityCounts[table.personality(index)]--;
+        skillSum -= table.skill(index);
+    }
+
+    // Fallback when there are no per-game counters; teams are small, so the scan is short
+    private int countGame(int gameId) {
+        int count = 0;
+        for (int k = 0; k < size; k++) {
+            if (table.gameId(members[k]) == gameId) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
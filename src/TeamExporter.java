@@ -0,0 +1,179 @@
+import java.io.*;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+// Streams teams straight into a buffered file channel as CSV or JSON Lines, optionally
+// gzipped. Fields are written one by one, so no per-team row string or map is built and
+// memory use does not grow with the number of teams. Not thread-safe.
+public class TeamExporter {
+    public enum Format { CSV, JSON_LINES }
+
+    static final String CSV_HEADER = "TeamID,MemberCount,AverageSkill,BalanceScore,Members";
+    private static final int BUFFER_CHARS = 1 << 16;
+    private static final double HALF_TOLERANCE = 1e-6;  // Products this close to a half are re-rounded exactly
+
+    private final Format format;
+    private final boolean gzip;
+    private final char[] digits = new char[20];
+    private Writer out;
+
+    public TeamExporter(Format format, boolean gzip) {
+        this.format = format;
+        this.gzip = gzip;
+    }
+
+    public void export(List<Team> teams, Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            OutputStream stream = Channels.newOutputStream(channel);
+            if (gzip) {
+                stream = new GZIPOutputStream(stream, BUFFER_CHARS);
+            }
+            try (Writer writer = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8), BUFFER_CHARS)) {
+                export(teams, writer);
+            }
+        }
+    }
+
+    public void export(List<Team> teams, Writer writer) throws IOException {
+        this.out = writer;
+        try {
+            if (format == Format.CSV) {
+                out.write(CSV_HEADER);
+                out.write(System.lineSeparator());
+            }
+            for (Team team : teams) {
+                if (format == Format.CSV) {
+                    writeCsvRow(team);
+                } else {
+                    writeJsonLine(team);
+                }
+            }
+            out.flush();
+        } finally {
+            this.out = null;
+        }
+    }
+
+    // Same layout as Team.toCSVFormat
+    private void writeCsvRow(Team team) throws IOException {
+        out.write(team.getId());
+        out.write(',');
+        writeLong(team.getTeamSize());
+        out.write(',');
+        writeFixed(team.getAverageSkill(), 2);
+        out.write(',');
+        writeFixed(team.getBalanceScore(), 1);
+        out.write(",\"");
+        for (int i = 0; i < team.getTeamSize(); i++) {
+            Participant member = team.getMember(i);
+            if (i > 0) {
+                out.write(';');
+            }
+            out.write(member.getName());
+            out.write('(');
+            out.write(member.getPreferredRole().toString());
+            out.write(')');
+        }
+        out.write('"');
+        out.write(System.lineSeparator());
+    }
+
+    private void writeJsonLine(Team team) throws IOException {
+        out.write("{\"teamId\":");
+        writeJsonString(team.getId());
+        out.write(",\"memberCount\":");
+        writeLong(team.getTeamSize());
+        out.write(",\"averageSkill\":");
+        writeFixed(team.getAverageSkill(), 2);
+        out.write(",\"balanceScore\":");
+        writeFixed(team.getBalanceScore(), 1);
+        out.write(",\"balanced\":");
+        out.write(team.isBalanced() ? "true" : "false");
+        out.write(",\"members\":[");
+        for (int i = 0; i < team.getTeamSize(); i++) {
+            Participant member = team.getMember(i);
+            if (i > 0) {
+                out.write(',');
+            }
+            out.write("{\"id\":");
+            writeJsonString(member.getId());
+            out.write(",\"name\":");
+            writeJsonString(member.getName());
+            out.write(",\"game\":");
+            writeJsonString(member.getPreferredGame());
+            out.write(",\"skill\":");
+            writeLong(member.getSkillLevel());
+            out.write(",\"role\":");
+            writeJsonString(member.getPreferredRole().toString());
+            out.write(",\"personality\":");
+            writeJsonString(member.getPersonalityType().toString());
+            out.write('}');
+        }
+        out.write("]}\n");
+    }
+
+    private void writeJsonString(String value) throws IOException {
+        out.write('"');
+        int start = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c != '"' && c != '\\' && c >= 0x20) {
+                continue;
+            }
+            out.write(value, start, i - start);
+            switch (c) {
+                case '"': out.write("\\\""); break;
+                case '\\': out.write("\\\\"); break;
+                case '\n': out.write("\\n"); break;
+                case '\r': out.write("\\r"); break;
+                case '\t': out.write("\\t"); break;
+                default:
+                    out.write("\\u00");
+                    out.write(Character.forDigit(c >> 4, 16));
+                    out.write(Character.forDigit(c & 0xF, 16));
+            }
+            start = i + 1;
+        }
+        out.write(value, start, value.length() - start);
+        out.write('"');
+    }
+
+    // Equivalent to String.format("%.Nf") for the non-negative values we export. That rounds
+    // the shortest decimal form of the value half-up, so near a half, where the binary product
+    // value * scale can land on either side (41/40 is 1.025 but 102.49999...), the decimal
+    // digits decide instead.
+    private void writeFixed(double value, int decimals) throws IOException {
+        long scale = decimals == 1 ? 10 : decimals == 2 ? 100 : (long) Math.pow(10, decimals);
+        double product = value * scale;
+        long scaled = Math.round(product);
+        if (Math.abs(product - Math.floor(product) - 0.5) < HALF_TOLERANCE) {
+            scaled = BigDecimal.valueOf(value).setScale(decimals, RoundingMode.HALF_UP).unscaledValue().longValue();
+        }
+        writeLong(scaled / scale);
+        out.write('.');
+        long fraction = scaled % scale;
+        for (long place = scale / 10; place > 0; place /= 10) {
+            out.write((char) ('0' + (fraction / place) % 10));
+        }
+    }
+
+    private void writeLong(long value) throws IOException {
+        if (value < 0) {
+            out.write('-');
+            value = -value;
+        }
+        int position = digits.length;
+        do {
+            digits[--position] = (char) ('0' + value % 10);
+            value /= 10;
+        } while (value > 0);
+        out.write(digits, position, digits.length - position);
+    }
+}
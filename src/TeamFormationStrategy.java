@@ -1,4 +1,5 @@
 import java.util.List;
+import java.util.Locale;
 
 public interface TeamFormationStrategy {
     List<Team> formTeams(List<Participant> participants, int teamSize);
@@ -8,6 +9,36 @@ public interface TeamFormationStrategy {
         return formTeams(participants, teamSize); // Default to sequential
     }
 
+    // Strategies that support per-run options (such as a seed) override this; the others
+    // ignore the options
+    default List<Team> formTeams(List<Participant> participants, int teamSize, FormationOptions options) {
+        return formTeams(participants, teamSize);
+    }
+
+    // Strategies without a parallel search of their own run the sequential one, with the
+    // options, so the seed, budget and scoring rules still apply
+    default List<Team> formTeamsParallel(List<Participant> participants, int teamSize, FormationOptions options) {
+        return formTeams(participants, teamSize, options);
+    }
+
+    // Whether TeamBuilder may split a large pool and form each part separately. Strategies
+    // whose objective spans the whole pool return false and get the pool in one piece.
+    default boolean canPartition() {
+        return true;
+    }
+
     String getStrategyName();
     String getStrategyDescription();
-}
\ No newline at end of file
+
+    // Looks up a strategy by its command-line name (case-insensitive)
+    static TeamFormationStrategy forName(String name) throws InvalidDataException {
+        switch (name.trim().toLowerCase(Locale.ROOT)) {
+            case "balanced": return new BalancedTeamStrategy();
+            case "local": return new LocalSearchTeamStrategy();
+            case "exact": return new BranchAndBoundTeamStrategy();
+            case "parity": return new SkillParityTeamStrategy();
+            default:
+                throw new InvalidDataException("Unknown strategy '" + name + "'. Available: balanced, local, exact, parity");
+        }
+    }
+}
@@ -1,8 +1,14 @@
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.*;
 import java.util.concurrent.*;
 import java.util.stream.Collectors;
 
 public class TeamMateApplication {
+    // Override with -Dteammate.participants=<path>
+    private static final String DEFAULT_PARTICIPANTS_FILE = System.getProperty("teammate.participants",
+            "C:\\Users\\ADMIN\\IdeaProjects\\TeamGame\\src\\participants_sample.csv");
+
     private final CSVDataHandler dataHandler;
     private final SurveyManager surveyManager;
     private final TeamBuilder teamBuilder;
@@ -10,44 +16,94 @@ public class TeamMateApplication {
     private List<Team> currentTeams;
     private final ExecutorService surveyExecutor;
     private final ExecutorService teamFormationExecutor;
+    private volatile int currentTeamSize;
+    // The CSV loaded last; survey answers are appended there so the next load sees them
+    private volatile String participantsFile = DEFAULT_PARTICIPANTS_FILE;
 
     public TeamMateApplication() {
+        this(ScoringConfig.defaults());
+    }
+
+    public TeamMateApplication(ScoringConfig scoring) {
         this.dataHandler = new CSVDataHandler();
+        // -Dteammate.snapshotDir=<dir> keeps binary snapshots of loaded CSVs for faster reloads
+        String snapshotDir = System.getProperty("teammate.snapshotDir");
+        if (snapshotDir != null) {
+            dataHandler.setSnapshotDirectory(Paths.get(snapshotDir));
+        }
         this.surveyManager = new SurveyManager();
         this.teamBuilder = new TeamBuilder();
+        // -Dteammate.seed=N reproduces an earlier formation exactly
+        Long seed = Long.getLong("teammate.seed");
+        if (seed != null) {
+            teamBuilder.setSeed(seed);
+        }
+        teamBuilder.setScoring(scoring);
+        teamBuilder.setProgressListener(new ConsoleProgressListener(System.out));
         this.currentParticipants = Collections.synchronizedList(new ArrayList<>());
         this.currentTeams = Collections.synchronizedList(new ArrayList<>());
-        this.surveyExecutor = Executors.newFixedThreadPool(3);
-        this.teamFormationExecutor = Executors.newFixedThreadPool(2);
+        // Surveys block on the console, formation is CPU-bound; see AppExecutors
+        this.surveyExecutor = AppExecutors.io();
+        this.teamFormationExecutor = AppExecutors.compute();
+    }
+
+    // -Dteammate.scoring=<file> scores teams by a club's own rules; see ScoringConfig
+    private static ScoringConfig scoringFromProperty() throws DataLoadingException, InvalidDataException {
+        String path = System.getProperty("teammate.scoring");
+        return path == null ? ScoringConfig.defaults() : ScoringConfig.load(path);
     }
 
     // Add shutdown method
     public void shutdown() {
-        surveyExecutor.shutdown();
-        teamFormationExecutor.shutdown();
         dataHandler.shutdown();
         teamBuilder.shutdown();
-        try {
-            if (!surveyExecutor.awaitTermination(5, TimeUnit.SECONDS)) {
-                surveyExecutor.shutdownNow();
+        AppExecutors.shutdown();
+    }
+
+    public static void main(String[] args) {
+        // --serve [port] runs the local HTTP service; see TeamMateServer
+        if (args.length > 0 && args[0].equals("--serve")) {
+            try {
+                TeamMateServer.serve(args.length > 1 ? Integer.parseInt(args[1])
+                        : Integer.getInteger("teammate.port", TeamMateServer.DEFAULT_PORT), scoringFromProperty());
+            } catch (IOException | NumberFormatException | DataLoadingException | InvalidDataException e) {
+                System.err.println("Could not start server: " + e.getMessage());
+                System.exit(1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
             }
-            if (!teamFormationExecutor.awaitTermination(5, TimeUnit.SECONDS)) {
-                teamFormationExecutor.shutdownNow();
+            return;
+        }
+
+        // Any other arguments select the non-interactive batch mode; see BatchMode
+        if (args.length > 0) {
+            int exitCode;
+            try {
+                exitCode = new BatchMode(System.out, System.err).run(args);
+            } finally {
+                AppExecutors.shutdown();
             }
-        } catch (InterruptedException e) {
-            surveyExecutor.shutdownNow();
-            teamFormationExecutor.shutdownNow();
-            Thread.currentThread().interrupt();
+            System.exit(exitCode);
+        }
+
+        // A scoring file that cannot be used stops the app, as under --serve and in batch mode,
+        // rather than quietly forming teams by the default rules
+        ScoringConfig scoring;
+        try {
+            scoring = scoringFromProperty();
+        } catch (DataLoadingException | InvalidDataException e) {
+            System.err.println("Could not load scoring rules: " + e.getMessage());
+            AppExecutors.shutdown();
+            System.exit(1);
+            return;
         }
-    }
 
-    public static void main(String[] args) {
         System.out.println("=========================================");
         System.out.println(" TeamMate: Intelligent Team Formation");
         System.out.println(" University Gaming Club System");
         System.out.println("=========================================\n");
 
-        TeamMateApplication app = new TeamMateApplication();
+        TeamMateApplication app = new TeamMateApplication(scoring);
 
         // Add shutdown hook
         Runtime.getRuntime().addShutdownHook(new Thread(app::shutdown));
@@ -99,7 +155,7 @@ public class TeamMateApplication {
                     case 2:
                         CompletableFuture<Void> surveyFuture = CompletableFuture.runAsync(() -> {
                             conductNewSurvey(scanner);
-                        }).exceptionally(throwable -> {
+                        }, AppExecutors.io()).exceptionally(throwable -> {
                             System.out.println("Survey operation failed: " + throwable.getMessage());
                             return null;
                         });
@@ -111,7 +167,7 @@ public class TeamMateApplication {
                     case 4:
                         CompletableFuture<Void> teamFuture = CompletableFuture.runAsync(() -> {
                             formTeams(scanner);
-                        }).exceptionally(throwable -> {
+                        }, AppExecutors.io()).exceptionally(throwable -> {
                             System.out.println("Team formation failed: " + throwable.getMessage());
                             return null;
                         });
@@ -174,17 +230,19 @@ public class TeamMateApplication {
         String filePath = scanner.nextLine().trim();
 
         if (filePath.isEmpty()) {
-            filePath = "C:\\Users\\ADMIN\\IdeaProjects\\TeamGame\\src\\participants_sample.csv";
+            filePath = DEFAULT_PARTICIPANTS_FILE;
         }
 
         System.out.println("Loading participants asynchronously...");
 
         // Use async loading
+        String loadedFile = filePath;
         dataHandler.loadParticipantsAsync(filePath)
                 .thenAccept(loadedParticipants -> {
                     synchronized (currentParticipants) {
                         currentParticipants.addAll(loadedParticipants);
                     }
+                    participantsFile = loadedFile;
                     System.out.printf("Loaded %d participants. Total participants: %d%n",
                             loadedParticipants.size(), currentParticipants.size());
                 })
@@ -249,16 +307,22 @@ public class TeamMateApplication {
                 System.out.printf("Survey completed! Added participant: %s%n", participant.getName());
                 System.out.printf("Personality Type: %s%n", participant.getPersonalityType());
 
-                // Async CSV save
-                CompletableFuture.runAsync(() -> {
-                    try {
-                        String csvFilePath = "C:\\Users\\ADMIN\\IdeaProjects\\TeamGame\\src\\participants_sample.csv";
-                        dataHandler.appendParticipant(participant, csvFilePath);
-                        System.out.println("Participant saved to CSV successfully.");
-                    } catch (DataSavingException e) {
-                        System.out.println("Warning: Could not save participant to CSV: " + e.getMessage());
+                // Late sign-up: slot into the existing teams instead of re-forming them all
+                synchronized (currentTeams) {
+                    if (!currentTeams.isEmpty()) {
+                        Team team = teamBuilder.addParticipant(currentTeams, participant, currentTeamSize);
+                        System.out.printf("Assigned to team %s (balance score %.1f)%n",
+                                team.getId(), team.getBalanceScore());
                     }
-                }, surveyExecutor);
+                }
+
+                // Async CSV save through the shared group-commit writer
+                dataHandler.appendParticipantAsync(participant, participantsFile)
+                        .thenRun(() -> System.out.println("Participant saved to CSV successfully."))
+                        .exceptionally(throwable -> {
+                            System.out.println("Warning: Could not save participant to CSV: " + throwable.getCause().getMessage());
+                            return null;
+                        });
             });
 
         } catch (TimeoutException e) {
@@ -347,25 +411,12 @@ public class TeamMateApplication {
             }
         }, teamFormationExecutor);
 
-        // Show progress while processing
-        System.out.print("Processing");
-        CompletableFuture<Void> progressFuture = CompletableFuture.runAsync(() -> {
-            try {
-                for (int i = 0; i < 10; i++) {
-                    Thread.sleep(200);
-                    System.out.print(".");
-                }
-                System.out.println();
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
-        });
-
-        // Combine both and handle result
-        teamsFuture.thenCombine(progressFuture, (teams, unused) -> {
+        // Progress lines come from the strategy itself through the builder's listener
+        teamsFuture.thenApply(teams -> {
             synchronized (currentTeams) {
                 currentTeams.clear();
                 currentTeams.addAll(teams);
+                currentTeamSize = teamSize;
             }
             return teams;
         }).thenAccept(teams -> {
@@ -390,6 +441,8 @@ public class TeamMateApplication {
                                     balancedTeams, teams.size(),
                                     (balancedTeams * 100.0 / teams.size()));
                             System.out.printf("Average balance score: %.2f%n", avgBalanceScore);
+                            System.out.printf("Skill spread: %.2f (combined score %.2f)%n",
+                                    FormationScores.skillSpread(teams), FormationScores.combinedScore(teams));
                         } catch (InterruptedException | ExecutionException e) {
                             System.out.println("Error calculating statistics: " + e.getMessage());
                         }
@@ -0,0 +1,215 @@
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.DoubleAccumulator;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+
+// Process-wide metrics registry, published over JMX. Everything recorded on a hot path is a
+// striped counter (LongAdder and friends), so recording never takes a lock. Derived values
+// such as rates and queue depths are only computed when someone reads them.
+public class TeamMateMetrics implements TeamMateMetricsMXBean {
+    static final String OBJECT_NAME = "TeamMate:type=Metrics";
+
+    private static final TeamMateMetrics INSTANCE = new TeamMateMetrics();
+
+    static {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(INSTANCE, new ObjectName(OBJECT_NAME));
+        } catch (JMException e) {
+            System.out.println("Warning: Metrics are not available over JMX - " + e.getMessage());
+        }
+    }
+
+    private final LatencyHistogram formTeamsLatency = new LatencyHistogram();
+    private final LatencyHistogram formTeamsParallelLatency = new LatencyHistogram();
+
+    private final LongAdder attemptsEvaluated = new LongAdder();
+    private final LongAdder searchNanos = new LongAdder();
+    private final DoubleAccumulator bestBalanceScore = new DoubleAccumulator(Math::max, 0.0);
+    private final DoubleAdder balanceScoreSum = new DoubleAdder();
+    private final LongAdder formationsScored = new LongAdder();
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder cacheMisses = new LongAdder();
+
+    private final LongAdder rowsParsed = new LongAdder();
+    private final LongAdder rejectedRows = new LongAdder();
+    private final LongAdder parseNanos = new LongAdder();
+
+    private final LongAdder exportedBytes = new LongAdder();
+
+    private final Map<String, IntSupplier> queues = new ConcurrentHashMap<>();
+
+    private TeamMateMetrics() {
+    }
+
+    public static TeamMateMetrics getInstance() {
+        return INSTANCE;
+    }
+
+    // Recording (hot path)
+
+    public void recordFormTeams(long elapsedNanos, double balanceScore) {
+        formTeamsLatency.record(elapsedNanos);
+        recordBalanceScore(balanceScore);
+    }
+
+    public void recordFormTeamsParallel(long elapsedNanos, double balanceScore) {
+        formTeamsParallelLatency.record(elapsedNanos);
+        recordBalanceScore(balanceScore);
+    }
+
+    // Strategies count locally and add once per worker, not once per attempt
+    public void recordAttempts(long attempts) {
+        attemptsEvaluated.add(attempts);
+    }
+
+    public void recordSearchTime(long elapsedNanos) {
+        searchNanos.add(elapsedNanos);
+    }
+
+    public void recordCacheHit() {
+        cacheHits.increment();
+    }
+
+    public void recordCacheMiss() {
+        cacheMisses.increment();
+    }
+
+    public void recordLoad(long rows, long rejected, long elapsedNanos) {
+        rowsParsed.add(rows);
+        rejectedRows.add(rejected);
+        parseNanos.add(elapsedNanos);
+    }
+
+    public void recordExport(long bytes) {
+        exportedBytes.add(bytes);
+    }
+
+    private void recordBalanceScore(double balanceScore) {
+        bestBalanceScore.accumulate(balanceScore);
+        balanceScoreSum.add(balanceScore);
+        formationsScored.increment();
+    }
+
+    // Queue depth gauges: anything that can say how much work is waiting on it
+
+    public void registerQueue(String name, IntSupplier depth) {
+        queues.put(name, depth);
+    }
+
+    public void unregisterQueue(String name) {
+        queues.remove(name);
+    }
+
+    public void registerExecutor(String name, ExecutorService executor) {
+        registerQueue(name, () -> queueDepth(executor));
+    }
+
+    // Reading (JMX)
+
+    @Override
+    public LatencyHistogram.Summary getFormTeamsLatency() {
+        return formTeamsLatency.summarize();
+    }
+
+    @Override
+    public LatencyHistogram.Summary getFormTeamsParallelLatency() {
+        return formTeamsParallelLatency.summarize();
+    }
+
+    @Override
+    public long getAttemptsEvaluated() {
+        return attemptsEvaluated.sum();
+    }
+
+    @Override
+    public double getAttemptsPerSecond() {
+        return perSecond(attemptsEvaluated.sum(), searchNanos.sum());
+    }
+
+    @Override
+    public double getBestBalanceScore() {
+        return bestBalanceScore.get();
+    }
+
+    @Override
+    public double getAverageBalanceScore() {
+        long scored = formationsScored.sum();
+        return scored == 0 ? 0.0 : balanceScoreSum.sum() / scored;
+    }
+
+    @Override
+    public long getFormationCacheHits() {
+        return cacheHits.sum();
+    }
+
+    @Override
+    public long getFormationCacheMisses() {
+        return cacheMisses.sum();
+    }
+
+    @Override
+    public long getRowsParsed() {
+        return rowsParsed.sum();
+    }
+
+    @Override
+    public long getRejectedRows() {
+        return rejectedRows.sum();
+    }
+
+    @Override
+    public double getRowsParsedPerSecond() {
+        return perSecond(rowsParsed.sum(), parseNanos.sum());
+    }
+
+    @Override
+    public long getExportedBytes() {
+        return exportedBytes.sum();
+    }
+
+    @Override
+    public Map<String, Integer> getExecutorQueueDepths() {
+        Map<String, Integer> depths = new TreeMap<>();
+        queues.forEach((name, depth) -> depths.put(name, depth.getAsInt()));
+        return depths;
+    }
+
+    @Override
+    public void reset() {
+        formTeamsLatency.reset();
+        formTeamsParallelLatency.reset();
+        attemptsEvaluated.reset();
+        searchNanos.reset();
+        bestBalanceScore.reset();
+        balanceScoreSum.reset();
+        formationsScored.reset();
+        cacheHits.reset();
+        cacheMisses.reset();
+        rowsParsed.reset();
+        rejectedRows.reset();
+        parseNanos.reset();
+        exportedBytes.reset();
+    }
+
+    // Tasks waiting to run; -1 for executor types we cannot inspect
+    private static int queueDepth(ExecutorService executor) {
+        if (executor instanceof ThreadPoolExecutor) {
+            return ((ThreadPoolExecutor) executor).getQueue().size();
+        }
+        if (executor instanceof ForkJoinPool) {
+            ForkJoinPool pool = (ForkJoinPool) executor;
+            return (int) Math.min(Integer.MAX_VALUE, pool.getQueuedSubmissionCount() + pool.getQueuedTaskCount());
+        }
+        return -1;
+    }
+
+    private static double perSecond(long count, long nanos) {
+        return nanos == 0 ? 0.0 : count / (nanos / 1_000_000_000.0);
+    }
+}
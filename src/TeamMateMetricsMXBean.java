@@ -0,0 +1,24 @@
+import java.util.Map;
+
+// Management interface of TeamMateMetrics, registered as "TeamMate:type=Metrics"
+public interface TeamMateMetricsMXBean {
+    LatencyHistogram.Summary getFormTeamsLatency();
+    LatencyHistogram.Summary getFormTeamsParallelLatency();
+
+    long getAttemptsEvaluated();
+    double getAttemptsPerSecond();
+    double getBestBalanceScore();
+    double getAverageBalanceScore();
+    long getFormationCacheHits();
+    long getFormationCacheMisses();
+
+    long getRowsParsed();
+    long getRejectedRows();
+    double getRowsParsedPerSecond();
+
+    long getExportedBytes();
+
+    Map<String, Integer> getExecutorQueueDepths();
+
+    void reset();
+}
@@ -0,0 +1,471 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.*;
+import java.net.InetSocketAddress;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+// HTTP front end for the registration portal, on the JDK's built-in server and bound to the
+// loopback interface only. Requests are handled on virtual threads; formation runs on the
+// shared compute pool through a FormationScheduler.
+//
+//   POST   /participants               CSV body; returns a pool id
+//   POST   /jobs?pool=&teamSize=[&strategy=&seed=&budgetMs=&target=]
+//                                      starts forming teams; 202 with a job id
+//   GET    /jobs/{id}[?waitMs=]         job status; waitMs long-polls until the job finishes
+//   GET    /jobs/{id}/teams[?format=csv|jsonl]
+//                                      the formed teams, streamed
+//   DELETE /jobs/{id}                  cancels the job
+//
+// Jobs are scored by the rules given to setScoring (from -Dteammate.scoring under --serve).
+// Load is bounded everywhere: concurrent requests (429), waiting jobs (429), upload size
+// (413), and the number of pools and finished jobs kept (oldest dropped first; jobs still
+// queued or running are always kept).
+public class TeamMateServer {
+    public static final int DEFAULT_PORT = 8080;
+    private static final long DEFAULT_MAX_UPLOAD_BYTES = 64L * 1024 * 1024;
+    private static final long MAX_DISCARDED_BYTES = 1024 * 1024;  // Read past a rejected upload
+    private static final int DEFAULT_MAX_CONCURRENT_REQUESTS = 64;
+    private static final int DEFAULT_MAX_PENDING_JOBS = 256;
+    private static final int MAX_POOLS = 64;
+    private static final int MAX_RETAINED_JOBS = 1024;
+    private static final long MAX_WAIT_MILLIS = 30_000;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final HttpServer server;
+    private final long maxUploadBytes;
+    private final int maxPendingJobs;
+    private final Semaphore requestPermits;
+    private volatile FormationOptions baseOptions = FormationOptions.defaults();
+    private final CSVDataHandler dataHandler = new CSVDataHandler();
+    private final FormationScheduler scheduler = new FormationScheduler();
+    private final AtomicLong nextPoolId = new AtomicLong(1);
+    private final Map<String, List<Participant>> pools = boundedMap(MAX_POOLS);
+    private final Map<Long, FormationScheduler.Job> jobs = Collections.synchronizedMap(new LinkedHashMap<>());
+
+    public TeamMateServer(int port) throws IOException {
+        this(port, DEFAULT_MAX_UPLOAD_BYTES, DEFAULT_MAX_CONCURRENT_REQUESTS, DEFAULT_MAX_PENDING_JOBS);
+    }
+
+    // Port 0 picks a free port; see getPort
+    public TeamMateServer(int port, long maxUploadBytes, int maxConcurrentRequests, int maxPendingJobs)
+            throws IOException {
+        this.maxUploadBytes = maxUploadBytes;
+        this.maxPendingJobs = maxPendingJobs;
+        this.requestPermits = new Semaphore(maxConcurrentRequests);
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), maxConcurrentRequests);
+        server.createContext("/participants", limited(this::handleParticipants));
+        server.createContext("/jobs", limited(this::handleJobs));
+        server.setExecutor(AppExecutors.io());
+    }
+
+    public void start() {
+        server.start();
+        System.out.println("TeamMate server listening on http://" + server.getAddress().getHostString() + ":" + getPort());
+    }
+
+    // Scoring rules for every job submitted from now on; see ScoringConfig
+    public void setScoring(ScoringConfig config) {
+        baseOptions = FormationOptions.defaults().withScoring(config);
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    // Stops accepting requests, gives open exchanges a moment to finish and cancels waiting jobs
+    public void stop() {
+        server.stop(1);
+        scheduler.shutdown();
+        dataHandler.shutdown();
+    }
+
+    // Rejects the request straight away instead of queueing it once every permit is taken
+    private HttpHandler limited(HttpHandler handler) {
+        return exchange -> {
+            if (!requestPermits.tryAcquire()) {
+                exchange.getResponseHeaders().set("Retry-After", "1");
+                sendError(exchange, 429, "Too many concurrent requests");
+                return;
+            }
+            try {
+                handler.handle(exchange);
+            } catch (HttpError e) {
+                sendError(exchange, e.status, e.getMessage());
+            } catch (RuntimeException e) {
+                sendError(exchange, 500, "Internal error: " + e.getMessage());
+            } finally {
+                requestPermits.release();
+                exchange.close();
+            }
+        };
+    }
+
+    private void handleParticipants(HttpExchange exchange) throws IOException {
+        requireMethod(exchange, "POST");
+        InputStream body = exchange.getRequestBody();
+        long declaredLength = contentLength(exchange);
+        if (declaredLength > maxUploadBytes) {
+            throw uploadTooLarge(exchange, body);
+        }
+
+        // The loader memory-maps its input, so the body is streamed to a temporary file first
+        Path upload = Files.createTempFile("teammate-upload-", ".csv");
+        try {
+            if (!copyLimited(body, upload)) {
+                throw uploadTooLarge(exchange, body);
+            }
+            ParticipantLoadReport report = dataHandler.loadParticipantsWithReport(upload.toString());
+            String poolId = "p" + nextPoolId.getAndIncrement();
+            pools.put(poolId, report.getParticipants());
+
+            StringBuilder json = new StringBuilder("{\"pool\":");
+            appendJsonString(json, poolId);
+            json.append(",\"participants\":").append(report.getParticipants().size())
+                    .append(",\"rejectedRows\":").append(report.getRejectedRows())
+                    .append(",\"errors\":[");
+            List<String> errors = report.getErrors();
+            for (int i = 0; i < Math.min(errors.size(), 20); i++) {
+                if (i > 0) {
+                    json.append(',');
+                }
+                appendJsonString(json, errors.get(i));
+            }
+            json.append("]}");
+            sendJson(exchange, 201, json.toString());
+        } catch (DataLoadingException e) {
+            throw new HttpError(400, e.getMessage());
+        } finally {
+            Files.deleteIfExists(upload);
+        }
+    }
+
+    // Returns false, leaving the rest of the body unread, once the upload passes the limit
+    private boolean copyLimited(InputStream body, Path target) throws IOException {
+        try (OutputStream out = Files.newOutputStream(target)) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            long total = 0;
+            int read;
+            while ((read = body.read(buffer)) != -1) {
+                total += read;
+                if (total > maxUploadBytes) {
+                    return false;
+                }
+                out.write(buffer, 0, read);
+            }
+            return true;
+        }
+    }
+
+    // The client may still be sending when an upload is refused, and closing the socket under
+    // it loses the response to a reset. Up to MAX_DISCARDED_BYTES more of the body are read and
+    // dropped so a modest overshoot still gets its 413; the connection is closed either way.
+    private HttpError uploadTooLarge(HttpExchange exchange, InputStream body) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        long discarded = 0;
+        int read;
+        while (discarded < MAX_DISCARDED_BYTES
+                && (read = body.read(buffer, 0, (int) Math.min(buffer.length, MAX_DISCARDED_BYTES - discarded))) != -1) {
+            discarded += read;
+        }
+        exchange.getResponseHeaders().set("Connection", "close");
+        return new HttpError(413, "Upload exceeds " + maxUploadBytes + " bytes");
+    }
+
+    private void handleJobs(HttpExchange exchange) throws IOException {
+        String[] path = exchange.getRequestURI().getPath().split("/");
+        // "", "jobs"[, id[, "teams"]]
+        if (path.length == 2) {
+            requireMethod(exchange, "POST");
+            submitJob(exchange);
+            return;
+        }
+        FormationScheduler.Job job = jobs.get(parseJobId(path[2]));
+        if (job == null) {
+            throw new HttpError(404, "Unknown job " + path[2]);
+        }
+        if (path.length == 3 && exchange.getRequestMethod().equals("DELETE")) {
+            job.cancel();
+            sendJson(exchange, 200, jobJson(job));
+        } else if (path.length == 3) {
+            requireMethod(exchange, "GET");
+            awaitJob(job, Math.min(MAX_WAIT_MILLIS, parseLong(query(exchange.getRequestURI()), "waitMs", 0)));
+            sendJson(exchange, 200, jobJson(job));
+        } else if (path.length == 4 && path[3].equals("teams")) {
+            requireMethod(exchange, "GET");
+            sendTeams(exchange, job);
+        } else {
+            throw new HttpError(404, "Not found");
+        }
+    }
+
+    private void submitJob(HttpExchange exchange) throws IOException {
+        Map<String, String> query = query(exchange.getRequestURI());
+        String poolId = query.get("pool");
+        List<Participant> participants = poolId == null ? null : pools.get(poolId);
+        if (participants == null) {
+            throw new HttpError(404, "Unknown participant pool " + poolId);
+        }
+        int teamSize = (int) parseLong(query, "teamSize", 0);
+        if (teamSize < 1) {
+            throw new HttpError(400, "teamSize must be a positive whole number");
+        }
+
+        TeamFormationStrategy strategy;
+        try {
+            strategy = TeamFormationStrategy.forName(query.getOrDefault("strategy", "balanced"));
+        } catch (InvalidDataException e) {
+            throw new HttpError(400, e.getMessage());
+        }
+        FormationOptions options = baseOptions;
+        if (query.containsKey("seed")) {
+            options = options.withSeed(parseLong(query, "seed", 0));
+        }
+        long budgetMillis = parseLong(query, "budgetMs", 0);
+        if (budgetMillis > 0) {
+            options = options.withTimeBudget(Duration.ofMillis(budgetMillis));
+        }
+        if (query.containsKey("target")) {
+            try {
+                options = options.withTargetScore(Double.parseDouble(query.get("target")));
+            } catch (NumberFormatException e) {
+                throw new HttpError(400, "target must be a number");
+            }
+        }
+
+        // Backpressure: only admit a job while the scheduler's backlog is bounded
+        FormationScheduler.Job job;
+        synchronized (jobs) {
+            if (scheduler.getQueuedJobs() + scheduler.getRunningJobs() >= maxPendingJobs) {
+                exchange.getResponseHeaders().set("Retry-After", "1");
+                throw new HttpError(429, "Too many pending formation jobs");
+            }
+            job = scheduler.submit(poolId, participants, teamSize, strategy, options);
+            jobs.put(job.getId(), job);
+            retireFinishedJobs();
+        }
+        exchange.getResponseHeaders().set("Location", "/jobs/" + job.getId());
+        sendJson(exchange, 202, jobJson(job));
+    }
+
+    // Drops the oldest finished jobs beyond MAX_RETAINED_JOBS. Queued and running jobs are never
+    // dropped, so they can always be polled and cancelled; admission already bounds how many
+    // there are. Called with the jobs lock held.
+    private void retireFinishedJobs() {
+        Iterator<FormationScheduler.Job> oldestFirst = jobs.values().iterator();
+        while (jobs.size() > MAX_RETAINED_JOBS && oldestFirst.hasNext()) {
+            FormationScheduler.Status status = oldestFirst.next().getStatus();
+            if (status != FormationScheduler.Status.QUEUED && status != FormationScheduler.Status.RUNNING) {
+                oldestFirst.remove();
+            }
+        }
+    }
+
+    private static void awaitJob(FormationScheduler.Job job, long waitMillis) {
+        if (waitMillis <= 0) {
+            return;
+        }
+        try {
+            job.getResult().get(waitMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (TimeoutException | ExecutionException | CancellationException e) {
+            // The status reports how it ended (or that it has not yet)
+        }
+    }
+
+    private void sendTeams(HttpExchange exchange, FormationScheduler.Job job) throws IOException {
+        if (job.getStatus() != FormationScheduler.Status.SUCCEEDED) {
+            throw new HttpError(409, "Job " + job.getId() + " is " + job.getStatus());
+        }
+        String format = query(exchange.getRequestURI()).getOrDefault("format", "csv");
+        TeamExporter.Format exportFormat;
+        String contentType;
+        if (format.equals("csv")) {
+            exportFormat = TeamExporter.Format.CSV;
+            contentType = "text/csv; charset=utf-8";
+        } else if (format.equals("jsonl")) {
+            exportFormat = TeamExporter.Format.JSON_LINES;
+            contentType = "application/x-ndjson; charset=utf-8";
+        } else {
+            throw new HttpError(400, "format must be csv or jsonl");
+        }
+
+        List<Team> teams = job.getResult().join();
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(200, 0);  // Chunked: the export is streamed as it is written
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(exchange.getResponseBody(),
+                StandardCharsets.UTF_8), BUFFER_SIZE)) {
+            new TeamExporter(exportFormat, false).export(teams, writer);
+        }
+    }
+
+    private static String jobJson(FormationScheduler.Job job) {
+        StringBuilder json = new StringBuilder("{\"id\":").append(job.getId()).append(",\"pool\":");
+        appendJsonString(json, job.getName());
+        json.append(",\"status\":\"").append(job.getStatus()).append('"')
+                .append(",\"participants\":").append(job.getParticipantCount())
+                .append(",\"teamSize\":").append(job.getTeamSize())
+                .append(",\"queuedMs\":").append(job.getQueueTime().toMillis())
+                .append(",\"runMs\":").append(job.getRunTime().toMillis());
+
+        CompletableFuture<List<Team>> result = job.getResult();
+        if (job.getStatus() == FormationScheduler.Status.SUCCEEDED) {
+            List<Team> teams = result.join();
+            long balanced = teams.stream().filter(Team::isBalanced).count();
+            json.append(",\"teams\":").append(teams.size())
+                    .append(",\"balancedTeams\":").append(balanced)
+                    .append(",\"averageBalanceScore\":")
+                    .append(String.format(Locale.ROOT, "%.2f", FormationScores.averageBalanceScore(teams)))
+                    .append(",\"skillSpread\":")
+                    .append(String.format(Locale.ROOT, "%.2f", FormationScores.skillSpread(teams)))
+                    .append(",\"combinedScore\":")
+                    .append(String.format(Locale.ROOT, "%.2f", FormationScores.combinedScore(teams)));
+        } else if (job.getStatus() == FormationScheduler.Status.FAILED) {
+            json.append(",\"error\":");
+            appendJsonString(json, String.valueOf(result.exceptionNow().getMessage()));
+        }
+        return json.append('}').toString();
+    }
+
+    private static void requireMethod(HttpExchange exchange, String method) {
+        if (!exchange.getRequestMethod().equals(method)) {
+            exchange.getResponseHeaders().set("Allow", method);
+            throw new HttpError(405, "Use " + method);
+        }
+    }
+
+    private static long contentLength(HttpExchange exchange) {
+        String header = exchange.getRequestHeaders().getFirst("Content-Length");
+        try {
+            return header == null ? -1 : Long.parseLong(header);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static long parseJobId(String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new HttpError(404, "Unknown job " + value);
+        }
+    }
+
+    private static long parseLong(Map<String, String> query, String name, long defaultValue) {
+        String value = query.get(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new HttpError(400, name + " must be a whole number");
+        }
+    }
+
+    private static Map<String, String> query(URI uri) {
+        Map<String, String> query = new HashMap<>();
+        String raw = uri.getQuery();
+        if (raw == null || raw.isEmpty()) {
+            return query;
+        }
+        for (String pair : raw.split("&")) {
+            int equals = pair.indexOf('=');
+            if (equals > 0) {
+                query.put(decode(pair.substring(0, equals)), decode(pair.substring(equals + 1)));
+            } else if (!pair.isEmpty()) {
+                query.put(decode(pair), "");
+            }
+        }
+        return query;
+    }
+
+    private static String decode(String value) {
+        try {
+            return URLDecoder.decode(value, StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new HttpError(400, "Malformed query string");
+        }
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        StringBuilder json = new StringBuilder("{\"error\":");
+        appendJsonString(json, String.valueOf(message));
+        sendJson(exchange, status, json.append('}').toString());
+    }
+
+    private static void sendJson(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static void appendJsonString(StringBuilder json, String value) {
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"': json.append("\\\""); break;
+                case '\\': json.append("\\\\"); break;
+                case '\n': json.append("\\n"); break;
+                case '\r': json.append("\\r"); break;
+                case '\t': json.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+            }
+        }
+        json.append('"');
+    }
+
+    // Insertion-ordered and synchronized; the oldest entry goes once the map is full
+    private static <K, V> Map<K, V> boundedMap(int capacity) {
+        return Collections.synchronizedMap(new LinkedHashMap<K, V>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > capacity;
+            }
+        });
+    }
+
+    // Unwinds a handler into a JSON error response with the given status
+    private static final class HttpError extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private final int status;
+
+        HttpError(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+
+    // Serves until the process is stopped
+    public static void serve(int port, ScoringConfig scoring) throws IOException, InterruptedException {
+        TeamMateServer server = new TeamMateServer(port);
+        server.setScoring(scoring);
+        CountDownLatch stopped = new CountDownLatch(1);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop();
+            stopped.countDown();
+        }));
+        server.start();
+        stopped.await();
+    }
+}
@@ -0,0 +1,46 @@
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Every strategy must score the teams it returns by the configured rules, not the defaults
+class ConfiguredScoringTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {"balanced", "local", "exact", "parity"})
+    void teamsAreScoredByTheConfiguredRules(String strategyName) throws InvalidDataException {
+        Properties properties = new Properties();
+        properties.setProperty("weight.gameVariety", "10");
+        properties.setProperty("weight.roleDiversity", "10");
+        properties.setProperty("weight.personalityMix", "20");
+        properties.setProperty("weight.personalityPartial", "5");
+        properties.setProperty("balanced.threshold", "30");
+        ScoringConfig config = ScoringConfig.fromProperties(properties);
+        BalanceEvaluator evaluator = config.compile();
+
+        for (int size : new int[]{40, 600}) {
+            TeamBuilder builder = new TeamBuilder(TeamFormationStrategy.forName(strategyName));
+            builder.setSeed(7);
+            builder.setScoring(config);
+            builder.setProgressListener(FormationProgressListener.NONE);
+            List<Participant> pool = TestParticipants.pool(size, 11);
+
+            for (List<Team> teams : List.of(builder.formTeams(pool, 5), builder.formTeamsParallel(pool, 5))) {
+                assertFalse(teams.isEmpty());
+                for (Team team : teams) {
+                    assertSame(config, team.getEvaluator().getConfig(), strategyName + " team " + team.getId());
+                    Team rescored = new Team(team.getId(), evaluator);
+                    team.getMembers().forEach(rescored::addMember);
+                    assertEquals(rescored.getBalanceScore(), team.getBalanceScore(), 1e-9);
+                    assertTrue(team.getBalanceScore() <= evaluator.getMaxScore());
+                }
+            }
+        }
+    }
+}
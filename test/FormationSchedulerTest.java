@@ -0,0 +1,159 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FormationSchedulerTest {
+    private static final long TIMEOUT_SECONDS = 10;
+
+    @Test
+    void cancellingAQueuedJobDropsItBeforeItRuns() throws Exception {
+        GatedStrategy strategy = new GatedStrategy();
+        FormationScheduler scheduler = new FormationScheduler(strategy, 1);
+        FormationScheduler.Job running = scheduler.submit("a", TestParticipants.pool(10, 1), 5);
+        strategy.awaitStarted(1);
+        FormationScheduler.Job queued = scheduler.submit("b", TestParticipants.pool(10, 2), 5);
+
+        assertEquals(FormationScheduler.Status.QUEUED, queued.getStatus());
+        assertTrue(queued.cancel());
+        assertEquals(FormationScheduler.Status.CANCELLED, queued.getStatus());
+        assertTrue(queued.getResult().isCancelled());
+        assertEquals(0, scheduler.getQueuedJobs());
+
+        strategy.release();
+        running.getResult().get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        assertEquals(FormationScheduler.Status.SUCCEEDED, running.getStatus());
+        assertEquals(List.of(10), strategy.started());
+    }
+
+    @Test
+    void cancellingARunningJobInterruptsItAndFreesTheSlot() throws Exception {
+        GatedStrategy strategy = new GatedStrategy();
+        FormationScheduler scheduler = new FormationScheduler(strategy, 1);
+        FormationScheduler.Job running = scheduler.submit("a", TestParticipants.pool(10, 1), 5);
+        strategy.awaitStarted(1);
+        FormationScheduler.Job next = scheduler.submit("b", TestParticipants.pool(10, 2), 5);
+
+        assertTrue(running.cancel());
+        assertEquals(FormationScheduler.Status.CANCELLED, running.getStatus());
+        assertThrows(CancellationException.class, () -> running.getResult().join());
+        assertTrue(strategy.interrupted.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+
+        strategy.awaitStarted(2);
+        strategy.release();
+        next.getResult().get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        assertEquals(FormationScheduler.Status.SUCCEEDED, next.getStatus());
+    }
+
+    @Test
+    void finishedJobsCannotBeCancelled() throws Exception {
+        GatedStrategy strategy = new GatedStrategy();
+        strategy.release();
+        FormationScheduler scheduler = new FormationScheduler(strategy, 1);
+        FormationScheduler.Job job = scheduler.submit("a", TestParticipants.pool(10, 1), 5);
+        job.getResult().get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+        assertFalse(job.cancel());
+        assertEquals(FormationScheduler.Status.SUCCEEDED, job.getStatus());
+    }
+
+    // A small job submitted just after a large one overtakes it, as its virtual start is earlier
+    @Test
+    void smallJobsOvertakeLargeOnesWaitingAlongsideThem() throws Exception {
+        GatedStrategy strategy = new GatedStrategy();
+        FormationScheduler scheduler = new FormationScheduler(strategy, 1);
+        scheduler.submit("blocker", TestParticipants.pool(10, 1), 5);
+        strategy.awaitStarted(1);
+        FormationScheduler.Job large = scheduler.submit("large", TestParticipants.pool(2000, 2), 5);
+        FormationScheduler.Job small = scheduler.submit("small", TestParticipants.pool(20, 3), 5);
+
+        strategy.release();
+        large.getResult().get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        small.getResult().get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        assertEquals(List.of(10, 20, 2000), strategy.started());
+    }
+
+    @Test
+    void shutdownCancelsWaitingJobsAndRefusesNewOnes() throws Exception {
+        GatedStrategy strategy = new GatedStrategy();
+        FormationScheduler scheduler = new FormationScheduler(strategy, 1);
+        FormationScheduler.Job running = scheduler.submit("a", TestParticipants.pool(10, 1), 5);
+        strategy.awaitStarted(1);
+        FormationScheduler.Job queued = scheduler.submit("b", TestParticipants.pool(10, 2), 5);
+
+        scheduler.shutdown();
+        assertEquals(FormationScheduler.Status.CANCELLED, queued.getStatus());
+        assertThrows(IllegalStateException.class, () -> scheduler.submit("c", TestParticipants.pool(10, 3), 5));
+
+        strategy.release();
+        running.getResult().get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        assertEquals(FormationScheduler.Status.SUCCEEDED, running.getStatus());
+    }
+
+    // Records the pool size of each job as it starts and holds it until released; an interrupt
+    // ends the wait like an expired budget would
+    private static final class GatedStrategy implements TeamFormationStrategy {
+        private final CountDownLatch gate = new CountDownLatch(1);
+        private final CountDownLatch interrupted = new CountDownLatch(1);
+        private final List<Integer> started = Collections.synchronizedList(new ArrayList<>());
+        private final Object startLock = new Object();
+
+        @Override
+        public List<Team> formTeams(List<Participant> participants, int teamSize) {
+            return formTeams(participants, teamSize, FormationOptions.defaults());
+        }
+
+        @Override
+        public List<Team> formTeams(List<Participant> participants, int teamSize, FormationOptions options) {
+            synchronized (startLock) {
+                started.add(participants.size());
+                startLock.notifyAll();
+            }
+            try {
+                gate.await();
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                return new ArrayList<>();
+            }
+            return new ArrayList<>();
+        }
+
+        void awaitStarted(int count) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+            synchronized (startLock) {
+                while (started.size() < count) {
+                    long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                    assertTrue(remaining > 0, "job did not start");
+                    startLock.wait(remaining);
+                }
+            }
+        }
+
+        void release() {
+            gate.countDown();
+        }
+
+        List<Integer> started() {
+            return new ArrayList<>(started);
+        }
+
+        @Override
+        public String getStrategyName() {
+            return "Gated";
+        }
+
+        @Override
+        public String getStrategyDescription() {
+            return "Waits until the test releases it";
+        }
+    }
+}
@@ -0,0 +1,115 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ParticipantSnapshotTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void roundTripKeepsEveryField() throws IOException {
+        List<Participant> participants = TestParticipants.pool(200, 5);
+        participants.add(new Participant("Q1", "Zoë, \"Ace\" Ng", "zoe@university.edu", "Échecs", 10,
+                Role.COORDINATOR, 100));
+        Path snapshot = dir.resolve("pool.snapshot");
+
+        ParticipantSnapshot.write(participants, snapshot);
+
+        assertEquals(describe(participants), describe(ParticipantSnapshot.read(snapshot)));
+    }
+
+    @Test
+    void corruptedRecordFailsTheChecksum() throws IOException {
+        Path snapshot = dir.resolve("pool.snapshot");
+        ParticipantSnapshot.write(TestParticipants.pool(50, 6), snapshot);
+        byte[] bytes = Files.readAllBytes(snapshot);
+        bytes[bytes.length / 2] ^= 0x10;
+        Files.write(snapshot, bytes);
+
+        IOException e = assertThrows(IOException.class, () -> ParticipantSnapshot.read(snapshot));
+        assertEquals("Snapshot checksum mismatch", e.getMessage());
+    }
+
+    @Test
+    void snapshotOfAnotherSourceIsRejected() throws IOException {
+        Path csv = dir.resolve("pool.csv");
+        Files.writeString(csv, "ID,Name\n");
+        ParticipantSnapshot.Source source = ParticipantSnapshot.Source.of(csv);
+        Path snapshot = dir.resolve("pool.snapshot");
+        ParticipantSnapshot.write(TestParticipants.pool(10, 7), snapshot, source);
+
+        assertEquals(10, ParticipantSnapshot.read(snapshot, source).size());
+        Files.writeString(csv, "ID,Name,Email\n");
+        assertThrows(IOException.class, () -> ParticipantSnapshot.read(snapshot, ParticipantSnapshot.Source.of(csv)));
+    }
+
+    @Test
+    void concurrentWritersLeaveOneCompleteSnapshotAndNoTempFiles() throws IOException {
+        Path snapshot = dir.resolve("pool.snapshot");
+        List<CompletableFuture<Void>> writers = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            List<Participant> participants = TestParticipants.pool(500, i);
+            writers.add(CompletableFuture.runAsync(() -> {
+                try {
+                    ParticipantSnapshot.write(participants, snapshot);
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+            }));
+        }
+        writers.forEach(CompletableFuture::join);
+
+        assertEquals(500, ParticipantSnapshot.read(snapshot).size());
+        try (Stream<Path> files = Files.list(dir)) {
+            assertEquals(List.of(snapshot), files.toList());
+        }
+    }
+
+    @Test
+    void cachedLoadOnlySnapshotsIntoTheConfiguredDirectory() throws Exception {
+        Path data = Files.createDirectory(dir.resolve("data"));
+        Path csv = data.resolve("participants.csv");
+        Files.writeString(csv, "ID,Name,Email,PreferredGame,SkillLevel,PreferredRole,PersonalityScore,PersonalityType\n"
+                + "P1,Ann,ann@university.edu,Chess,7,Strategist,92,Leader\n");
+        CSVDataHandler handler = new CSVDataHandler();
+        try {
+            assertEquals(1, handler.loadParticipantsCached(csv.toString()).size());
+            try (Stream<Path> files = Files.list(data)) {
+                assertEquals(List.of(csv), files.toList());
+            }
+
+            Path cache = dir.resolve("cache");
+            handler.setSnapshotDirectory(cache);
+            assertEquals(1, handler.loadParticipantsCached(csv.toString()).size());
+            try (Stream<Path> files = Files.list(cache)) {
+                List<Path> snapshots = files.toList();
+                assertEquals(1, snapshots.size());
+                assertTrue(snapshots.get(0).getFileName().toString().startsWith("participants.csv-"));
+            }
+            assertEquals("Ann", handler.loadParticipantsCached(csv.toString()).get(0).getName());
+        } finally {
+            handler.shutdown();
+        }
+    }
+
+    private static List<String> describe(List<Participant> participants) {
+        List<String> rows = new ArrayList<>();
+        for (Participant p : participants) {
+            rows.add(String.join("|", p.getId(), p.getName(), p.getEmail(), p.getPreferredGame(),
+                    String.valueOf(p.getSkillLevel()), p.getPreferredRole().name(),
+                    String.valueOf(p.getPersonalityScore()), p.getPersonalityType().name()));
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,57 @@
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// The same seed must give the same teams on every path a strategy can be reached by
+class SeededFormationTest {
+    private static final long SEED = 42;
+
+    @ParameterizedTest
+    @ValueSource(strings = {"balanced", "local", "exact", "parity"})
+    void sequentialRunsWithTheSameSeedMatch(String strategyName) throws InvalidDataException {
+        List<Participant> pool = TestParticipants.pool(40, 1);
+        FormationOptions options = FormationOptions.defaults().withSeed(SEED);
+
+        List<Team> first = TeamFormationStrategy.forName(strategyName).formTeams(pool, 5, options);
+        List<Team> second = TeamFormationStrategy.forName(strategyName).formTeams(pool, 5, options);
+
+        assertEquals(TestParticipants.memberIds(first), TestParticipants.memberIds(second));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"balanced", "local", "exact", "parity"})
+    void parallelRunsWithTheSameSeedMatch(String strategyName) throws InvalidDataException {
+        List<Participant> pool = TestParticipants.pool(40, 2);
+        FormationOptions options = FormationOptions.defaults().withSeed(SEED);
+
+        List<Team> first = TeamFormationStrategy.forName(strategyName).formTeamsParallel(pool, 5, options);
+        List<Team> second = TeamFormationStrategy.forName(strategyName).formTeamsParallel(pool, 5, options);
+
+        assertEquals(TestParticipants.memberIds(first), TestParticipants.memberIds(second));
+    }
+
+    // Small pools go straight to the strategy, large ones are partitioned where allowed
+    @ParameterizedTest
+    @ValueSource(strings = {"balanced", "local", "exact", "parity"})
+    void teamBuilderRunsWithTheSameSeedMatch(String strategyName) throws InvalidDataException {
+        for (int size : new int[]{40, 600}) {
+            List<Participant> pool = TestParticipants.pool(size, 3);
+            // Separate builders, so the second run cannot come from the first one's cache
+            List<Team> first = seededBuilder(strategyName).formTeamsParallel(pool, 5);
+            List<Team> second = seededBuilder(strategyName).formTeamsParallel(pool, 5);
+
+            assertEquals(TestParticipants.memberIds(first), TestParticipants.memberIds(second),
+                    strategyName + " with " + size + " participants");
+        }
+    }
+
+    private static TeamBuilder seededBuilder(String strategyName) throws InvalidDataException {
+        TeamBuilder builder = new TeamBuilder(TeamFormationStrategy.forName(strategyName));
+        builder.setSeed(SEED);
+        builder.setProgressListener(FormationProgressListener.NONE);
+        return builder;
+    }
+}
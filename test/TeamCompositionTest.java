@@ -0,0 +1,110 @@
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// The mask checks must agree with counting the members out, on both the per-game counter
+// path and the scanning fallback (too many games for the mask, or too many members)
+class TeamCompositionTest {
+    private static final int THINKER = PersonalityType.THINKER.ordinal();
+    private static final int STEPS = 3_000;
+
+    @ParameterizedTest
+    @CsvSource({
+            "6, 10, 2, 1",
+            "6, 10, 1, 2",
+            "70, 10, 2, 1",
+            "6, 140, 30, 40",
+    })
+    void feasibilityChecksMatchABruteForceCount(int games, int teamSize, int maxPerGame, int maxThinkers)
+            throws InvalidDataException {
+        Properties properties = new Properties();
+        properties.setProperty("game.maxPerGame", String.valueOf(maxPerGame));
+        properties.setProperty("personality.minThinkers", "0");
+        properties.setProperty("personality.maxThinkers", String.valueOf(maxThinkers));
+        BalanceEvaluator evaluator = ScoringConfig.fromProperties(properties).compile();
+
+        Random random = new Random(games * 31L + teamSize);
+        ParticipantTable table = ParticipantTable.of(pool(300, games, random));
+        TeamComposition team = new TeamComposition(table, teamSize, evaluator);
+        List<Integer> members = new ArrayList<>();
+
+        for (int step = 0; step < STEPS; step++) {
+            int candidate = random.nextInt(table.size());
+            if (members.contains(candidate)) {
+                continue;
+            }
+            String where = "step " + step + ", members " + members + ", candidate " + candidate;
+            assertEquals(bruteCanAccept(table, members, candidate, maxPerGame, maxThinkers),
+                    team.canAccept(candidate), where);
+            assertEquals(members.stream().noneMatch(m -> table.role(m) == table.role(candidate)),
+                    team.addsRole(candidate), where);
+
+            if (members.size() < teamSize && (members.isEmpty() || random.nextInt(3) > 0)) {
+                team.add(candidate);
+                members.add(candidate);
+            } else if (random.nextInt(4) == 0) {
+                int leaving = members.remove(random.nextInt(members.size()));
+                team.remove(leaving);
+                // remove moves the last member into the gap; mirror the new order
+                members.clear();
+                for (int k = 0; k < team.size(); k++) {
+                    members.add(team.memberAt(k));
+                }
+            } else {
+                int position = random.nextInt(members.size());
+                assertEquals(bruteCanReplace(table, members, position, candidate, maxPerGame, maxThinkers),
+                        team.canReplace(position, candidate), where + ", position " + position);
+                double predicted = team.scoreAfterReplace(position, candidate);
+                team.replace(position, candidate);
+                members.set(position, candidate);
+                assertEquals(predicted, team.getBalanceScore(), 1e-9, where);
+            }
+            assertEquals(members.size(), team.size(), where);
+        }
+    }
+
+    private static boolean bruteCanAccept(ParticipantTable table, List<Integer> members, int candidate,
+                                          int maxPerGame, int maxThinkers) {
+        List<Integer> after = new ArrayList<>(members);
+        after.add(candidate);
+        return count(table, after, table.gameId(candidate)) <= maxPerGame
+                && (table.personality(candidate) != THINKER || thinkers(table, after) <= maxThinkers);
+    }
+
+    // A swap may not raise any count past its limit; one that leaves a count unchanged is fine
+    private static boolean bruteCanReplace(ParticipantTable table, List<Integer> members, int position,
+                                           int candidate, int maxPerGame, int maxThinkers) {
+        List<Integer> after = new ArrayList<>(members);
+        after.set(position, candidate);
+        int game = table.gameId(candidate);
+        int gamesAfter = count(table, after, game);
+        int thinkersAfter = thinkers(table, after);
+        return (gamesAfter <= maxPerGame || gamesAfter <= count(table, members, game))
+                && (thinkersAfter <= maxThinkers || thinkersAfter <= thinkers(table, members));
+    }
+
+    private static int count(ParticipantTable table, List<Integer> members, int gameId) {
+        return (int) members.stream().filter(m -> table.gameId(m) == gameId).count();
+    }
+
+    private static int thinkers(ParticipantTable table, List<Integer> members) {
+        return (int) members.stream().filter(m -> table.personality(m) == THINKER).count();
+    }
+
+    private static List<Participant> pool(int size, int games, Random random) {
+        Role[] roles = Role.values();
+        List<Participant> participants = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            participants.add(new Participant(String.format("P%04d", i), "Participant " + i,
+                    "user" + i + "@university.edu", "Game " + random.nextInt(games),
+                    1 + random.nextInt(10), roles[random.nextInt(roles.length)], 50 + random.nextInt(51)));
+        }
+        return participants;
+    }
+}
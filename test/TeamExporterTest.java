@@ -0,0 +1,77 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TeamExporterTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void csvRowsMatchTeamToCsvFormatForFormedTeams() throws Exception {
+        for (int size : new int[]{7, 40, 123, 600}) {
+            List<Team> teams = new BalancedTeamStrategy().formTeams(TestParticipants.pool(size, size), 5,
+                    FormationOptions.defaults().withSeed(size));
+            assertEquals(expectedCsv(teams), exportCsv(teams));
+        }
+    }
+
+    // Every average k/n for teams of up to 40 members, which includes the halves that a plain
+    // Math.round of value * 100 gets wrong (41/40 is 1.025, stored as 1.02499999...)
+    @Test
+    void csvRowsMatchTeamToCsvFormatOnEveryAverage() throws Exception {
+        List<Team> teams = new ArrayList<>();
+        for (int memberCount = 1; memberCount <= 40; memberCount++) {
+            for (int raised = 0; raised < memberCount; raised++) {
+                Team team = new Team("T" + memberCount + "-" + raised);
+                for (int i = 0; i < memberCount; i++) {
+                    team.addMember(new Participant(String.format("P%02d", i), "Member " + i,
+                            "member" + i + "@university.edu", "Chess", i < raised ? 2 : 1,
+                            Role.values()[i % Role.values().length], 50 + i));
+                }
+                teams.add(team);
+            }
+        }
+        assertEquals(expectedCsv(teams), exportCsv(teams));
+    }
+
+    @Test
+    void gzippedFileHoldsTheSameRows() throws Exception {
+        List<Team> teams = new BalancedTeamStrategy().formTeams(TestParticipants.pool(100, 3), 4,
+                FormationOptions.defaults().withSeed(3));
+        Path file = directory.resolve("teams.csv.gz");
+        new TeamExporter(TeamExporter.Format.CSV, true).export(teams, file);
+
+        try (Reader reader = new InputStreamReader(new GZIPInputStream(Files.newInputStream(file)),
+                StandardCharsets.UTF_8)) {
+            StringWriter contents = new StringWriter();
+            reader.transferTo(contents);
+            assertEquals(expectedCsv(teams), contents.toString());
+        }
+    }
+
+    private static String exportCsv(List<Team> teams) throws IOException {
+        StringWriter writer = new StringWriter();
+        new TeamExporter(TeamExporter.Format.CSV, false).export(teams, writer);
+        return writer.toString();
+    }
+
+    private static String expectedCsv(List<Team> teams) {
+        StringBuilder csv = new StringBuilder(TeamExporter.CSV_HEADER).append(System.lineSeparator());
+        for (Team team : teams) {
+            csv.append(team.toCSVFormat()).append(System.lineSeparator());
+        }
+        return csv.toString();
+    }
+}
@@ -0,0 +1,136 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TeamMateServerTest {
+    private static final long MAX_UPLOAD_BYTES = 64 * 1024;
+
+    private TeamMateServer server;
+    private HttpClient client;
+
+    @BeforeEach
+    void start() throws IOException {
+        server = new TeamMateServer(0, MAX_UPLOAD_BYTES, 64, 256);
+        server.start();
+        client = HttpClient.newHttpClient();
+    }
+
+    @AfterEach
+    void stop() {
+        server.stop();
+    }
+
+    @Test
+    void uploadedPoolIsFormedAndStreamedInBothFormats() throws Exception {
+        HttpResponse<String> upload = send("POST", "/participants", participantsCsv(40));
+        assertEquals(201, upload.statusCode());
+        assertTrue(upload.body().contains("\"participants\":40"), upload.body());
+        String pool = field(upload.body(), "pool");
+
+        HttpResponse<String> submitted = send("POST", "/jobs?pool=" + pool + "&teamSize=5&seed=7", null);
+        assertEquals(202, submitted.statusCode());
+        String id = field(submitted.body(), "id");
+        assertEquals("/jobs/" + id, submitted.headers().firstValue("Location").orElse(""));
+
+        HttpResponse<String> status = send("GET", "/jobs/" + id + "?waitMs=10000", null);
+        assertEquals(200, status.statusCode());
+        assertEquals("SUCCEEDED", field(status.body(), "status"));
+        assertTrue(status.body().contains("\"teams\":8"), status.body());
+
+        HttpResponse<String> csv = send("GET", "/jobs/" + id + "/teams?format=csv", null);
+        assertEquals(200, csv.statusCode());
+        List<String> lines = csv.body().lines().toList();
+        assertEquals(TeamExporter.CSV_HEADER, lines.get(0));
+        assertEquals(9, lines.size());
+
+        HttpResponse<String> jsonl = send("GET", "/jobs/" + id + "/teams?format=jsonl", null);
+        assertEquals(200, jsonl.statusCode());
+        assertEquals(8, jsonl.body().lines().filter(line -> line.startsWith("{")).count());
+
+        assertEquals(400, send("GET", "/jobs/" + id + "/teams?format=xml", null).statusCode());
+    }
+
+    @Test
+    void unknownJobsPoolsAndPathsAreNotFound() throws Exception {
+        assertEquals(404, send("GET", "/jobs/999", null).statusCode());
+        assertEquals(404, send("DELETE", "/jobs/999", null).statusCode());
+        assertEquals(404, send("POST", "/jobs?pool=p999&teamSize=5", null).statusCode());
+        assertEquals(404, send("GET", "/jobs/1/members", null).statusCode());
+    }
+
+    @Test
+    void wrongMethodsAreRejectedWithAllow() throws Exception {
+        HttpResponse<String> response = send("GET", "/participants", null);
+        assertEquals(405, response.statusCode());
+        assertEquals("POST", response.headers().firstValue("Allow").orElse(""));
+        assertEquals(405, send("GET", "/jobs", null).statusCode());
+    }
+
+    @Test
+    void oversizedUploadsAreRefusedAndTheConnectionClosed() throws Exception {
+        HttpResponse<String> response = send("POST", "/participants",
+                participantsCsv((int) (MAX_UPLOAD_BYTES / 40)));
+        assertEquals(413, response.statusCode());
+        assertEquals("close", response.headers().firstValue("Connection").orElse(""));
+    }
+
+    @Test
+    void badJobParametersAreRejected() throws Exception {
+        String pool = field(send("POST", "/participants", participantsCsv(20)).body(), "pool");
+        assertEquals(400, send("POST", "/jobs?pool=" + pool + "&teamSize=0", null).statusCode());
+        assertEquals(400, send("POST", "/jobs?pool=" + pool + "&teamSize=5&strategy=nope", null).statusCode());
+        assertEquals(400, send("POST", "/jobs?pool=" + pool + "&teamSize=5&target=high", null).statusCode());
+    }
+
+    // A long budgeted search is cancelled mid-run; its teams are then no longer available
+    @Test
+    void deleteCancelsARunningJob() throws Exception {
+        String pool = field(send("POST", "/participants", participantsCsv(200)).body(), "pool");
+        String id = field(send("POST", "/jobs?pool=" + pool + "&teamSize=5&strategy=local&budgetMs=60000",
+                null).body(), "id");
+
+        HttpResponse<String> cancelled = send("DELETE", "/jobs/" + id, null);
+        assertEquals(200, cancelled.statusCode());
+        assertEquals("CANCELLED", field(cancelled.body(), "status"));
+        assertEquals("CANCELLED", field(send("GET", "/jobs/" + id + "?waitMs=1000", null).body(), "status"));
+        assertEquals(409, send("GET", "/jobs/" + id + "/teams", null).statusCode());
+    }
+
+    private HttpResponse<String> send(String method, String path, String body) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + server.getPort() + path));
+        request.method(method, body == null
+                ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofString(body));
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    // A string or numeric field of a flat JSON response
+    private static String field(String json, String name) {
+        Matcher matcher = Pattern.compile("\"" + name + "\":\"?([^\",}]*)").matcher(json);
+        assertTrue(matcher.find(), name + " missing from " + json);
+        return matcher.group(1);
+    }
+
+    private static String participantsCsv(int size) {
+        StringBuilder csv = new StringBuilder(ParticipantAppendWriter.HEADER).append('\n');
+        for (Participant p : TestParticipants.pool(size, size)) {
+            csv.append(p.getId()).append(',').append(p.getName()).append(',').append(p.getEmail()).append(',')
+                    .append(p.getPreferredGame()).append(',').append(p.getSkillLevel()).append(',')
+                    .append(p.getPreferredRole()).append(',').append(p.getPersonalityScore()).append(',')
+                    .append(p.getPersonalityType()).append('\n');
+        }
+        return csv.toString();
+    }
+}
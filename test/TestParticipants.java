@@ -0,0 +1,36 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Reproducible participant pools for the tests
+final class TestParticipants {
+    private static final String[] GAMES = {"Chess", "FIFA", "Valorant", "DOTA 2", "Basketball", "CS:GO"};
+
+    private TestParticipants() {
+    }
+
+    static List<Participant> pool(int size, long seed) {
+        Random random = new Random(seed);
+        Role[] roles = Role.values();
+        List<Participant> participants = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            participants.add(new Participant(String.format("P%04d", i), "Participant " + i,
+                    "user" + i + "@university.edu", GAMES[random.nextInt(GAMES.length)],
+                    1 + random.nextInt(10), roles[random.nextInt(roles.length)], 50 + random.nextInt(51)));
+        }
+        return participants;
+    }
+
+    // Member ids team by team, for comparing formations
+    static List<List<String>> memberIds(List<Team> teams) {
+        List<List<String>> ids = new ArrayList<>(teams.size());
+        for (Team team : teams) {
+            List<String> members = new ArrayList<>();
+            for (Participant participant : team.getMembers()) {
+                members.add(participant.getId());
+            }
+            ids.add(members);
+        }
+        return ids;
+    }
+}